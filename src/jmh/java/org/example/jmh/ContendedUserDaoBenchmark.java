@@ -0,0 +1,9 @@
+package org.example.jmh;
+
+import org.openjdk.jmh.annotations.Threads;
+
+// 32 потока на пул из 20 соединений: ожидание соединения, блокировки строк
+// при update и конкуренция за регионы second-level cache
+@Threads(32)
+public class ContendedUserDaoBenchmark extends UserDaoBenchmark {
+}
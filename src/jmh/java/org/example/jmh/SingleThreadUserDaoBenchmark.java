@@ -0,0 +1,8 @@
+package org.example.jmh;
+
+import org.openjdk.jmh.annotations.Threads;
+
+// Один поток: стоимость операции без конкуренции за пул и кэш
+@Threads(1)
+public class SingleThreadUserDaoBenchmark extends UserDaoBenchmark {
+}
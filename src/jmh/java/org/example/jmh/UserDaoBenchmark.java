@@ -0,0 +1,155 @@
+package org.example.jmh;
+
+import org.example.UserService;
+import org.example.dao.UserDao;
+import org.example.dao.UserDaoImpl;
+import org.example.model.User;
+import org.example.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Операции UserDao и UserService на таблице из tableSize строк.
+// Вместо PostgreSQL - H2 в памяти в режиме совместимости (настройки в @Fork),
+// поэтому абсолютные цифры сравнимы только между сборками, а не с продом.
+// Second-level cache включён, как в приложении: findById и findByEmail
+// в основном попадают в кэш. Число потоков задают наследники
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+        "-Dhibernate.connection.driver_class=org.h2.Driver",
+        "-Dhibernate.connection.url=jdbc:h2:mem:userservice;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "-Dhibernate.connection.username=sa",
+        "-Dhibernate.connection.password=",
+        "-Dhibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "-Dhibernate.hbm2ddl.auto=create",
+        "-Dhibernate.show_sql=false",
+        "-Dlog4j.configurationFile=log4j2-jmh.xml"
+})
+@State(Scope.Benchmark)
+public abstract class UserDaoBenchmark {
+
+    private static final String SEED_DOMAIN = "@jmh.example.com";
+    private static final String INSERT_DOMAIN = "@jmh-insert.example.com";
+    private static final int SEED_CHUNK = 10_000;
+
+    @Param({"1000", "10000", "100000"})
+    public int tableSize;
+
+    private final AtomicLong inserted = new AtomicLong();
+    private UserDao userDao;
+    private UserService userService;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void seedTable() {
+        userDao = new UserDaoImpl();
+        userService = new UserService(userDao);
+        ids = new long[tableSize];
+
+        for (int from = 0; from < tableSize; from += SEED_CHUNK) {
+            List<User> users = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(from + SEED_CHUNK, tableSize); i++) {
+                users.add(new User(seedName(i), seedEmail(i), 18 + i % 60));
+            }
+            List<User> saved = userDao.saveAll(users).getSaved();
+            for (int i = 0; i < saved.size(); i++) {
+                ids[from + i] = saved.get(i).getId();
+            }
+        }
+    }
+
+    // Вставленные save() строки удаляем после каждой итерации, чтобы таблица не росла
+    @TearDown(Level.Iteration)
+    public void deleteInserted() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createQuery("delete from User where email like :domain")
+                    .setParameter("domain", "%" + INSERT_DOMAIN)
+                    .executeUpdate();
+            transaction.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public User save() {
+        return userDao.save(new User("JMH Insert", inserted.incrementAndGet() + INSERT_DOMAIN, 30));
+    }
+
+    @Benchmark
+    public Optional<User> findById() {
+        return userDao.findById(ids[randomRow()]);
+    }
+
+    @Benchmark
+    public Optional<User> findByEmail() {
+        return userDao.findByEmail(seedEmail(randomRow()));
+    }
+
+    // Подстрока совпадает ровно с одним именем, но запрос всё равно сканирует таблицу
+    @Benchmark
+    public List<User> findByName() {
+        return userDao.findByName(seedName(randomRow()));
+    }
+
+    @Benchmark
+    public List<User> findAll() {
+        return userDao.findAll();
+    }
+
+    @Benchmark
+    public User update() {
+        int row = randomRow();
+        User user = new User(seedName(row), seedEmail(row), 18 + ThreadLocalRandom.current().nextInt(60));
+        user.setId(ids[row]);
+        return userDao.update(user);
+    }
+
+    @Benchmark
+    public User serviceCreateUser() {
+        return userService.createUser("JMH Service", "service-" + inserted.incrementAndGet() + INSERT_DOMAIN, 30);
+    }
+
+    @Benchmark
+    public Optional<User> serviceGetUserByEmail() {
+        return userService.getUserByEmail(seedEmail(randomRow()));
+    }
+
+    private int randomRow() {
+        return ThreadLocalRandom.current().nextInt(tableSize);
+    }
+
+    private static String seedName(int row) {
+        return "JMH User " + row + ";";
+    }
+
+    private static String seedEmail(int row) {
+        return "user" + row + SEED_DOMAIN;
+    }
+}
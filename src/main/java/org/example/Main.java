@@ -1,36 +1,104 @@
 package org.example;
 
+import org.example.bulk.DuplicatePolicy;
+import org.example.bulk.ExportFormat;
+import org.example.bulk.ExportResult;
+import org.example.bulk.ImportResult;
+import org.example.bulk.UserCsvImporter;
+import org.example.bulk.UserExporter;
+import org.example.dao.CoalescingUserDao;
+import org.example.dao.Page;
+import org.example.dao.RebalanceResult;
+import org.example.dao.ReplicaRoutingUserDao;
+import org.example.dao.ShardRebalancer;
+import org.example.dao.ShardedUserDao;
+import org.example.dao.SingleFlightUserDao;
 import org.example.dao.UserDao;
 import org.example.dao.UserDaoImpl;
+import org.example.dao.UserPatch;
+import org.example.http.UserHttpServer;
+import org.example.loadtest.LoadTest;
+import org.example.loadtest.LoadTestConfig;
+import org.example.loadtest.LoadTestReport;
+import org.example.loadtest.WorkloadMix;
 import org.example.model.User;
+import org.example.model.UserSummary;
+import org.example.monitoring.DatabaseHealth;
+import org.example.monitoring.DatabaseHealthMonitor;
+import org.example.monitoring.HealthStatus;
+import org.example.monitoring.JfrUserDao;
+import org.example.monitoring.MetricsUserDao;
+import org.example.monitoring.UserDaoMetrics;
+import org.example.search.TrigramIndex;
 import org.example.util.HibernateUtil;
 import org.example.exception.UserException;
+import org.hibernate.SessionFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
 
     private static final Logger logger = LogManager.getLogger(Main.class);
     private static UserDao userDao;
+    private static UserDaoImpl userDaoImpl;
+    private static UserDaoMetrics metrics;
+    private static final List<SessionFactory> secondaryFactories = new ArrayList<>();
+    private static final List<UserDao> shardDaos = new ArrayList<>();
+    private static ShardedUserDao shardedDao;
+    private static CoalescingUserDao coalescer;
+    private static SingleFlightUserDao singleFlight;
+    private static DatabaseHealthMonitor health;
     private static final Scanner scanner = new Scanner(System.in);
+    private static final int PAGE_SIZE = 20;
+    private static int exitCode = 0;
 
     public static void main(String[] args) {
         try {
+            long startupStart = System.nanoTime();
             logger.info("Starting User Service Application");
 
+            // SessionFactory собирается в фоне, пока инициализируется остальное приложение
+            HibernateUtil.startAsync();
+
+            // Метрики операций публикуются в JMX (org.example:type=UserDao)
+            metrics = new UserDaoMetrics(Duration.ofSeconds(Long.getLong("userservice.metrics.window-seconds", 60)));
+
             // Проверяем подключение к базе данных
             if (!checkDatabaseConnection()) {
                 System.exit(1);
             }
 
-            // Инициализируем DAO
-            userDao = new UserDaoImpl();
+            // Фоновая проверка БД на отдельном соединении, пункт меню 8 читает её результат
+            health = new DatabaseHealthMonitor(HibernateUtil::openDedicatedConnection,
+                    Duration.ofMillis(Long.getLong("userservice.health.interval-ms", 5000)),
+                    Duration.ofMillis(Long.getLong("userservice.health.degraded-ms", 500)),
+                    Integer.getInteger("userservice.health.down-after", 3));
 
-            showMenu();
+            // Каждый вызов DAO пишет событие JFR org.example.UserDao
+            userDao = new MetricsUserDao(new JfrUserDao(withReplicas(withSingleFlight(withCoalescer(withShards(createUserDao()))))), metrics);
+            logStartupTime(startupStart);
+
+            if (args.length > 0) {
+                runCommand(args);
+            } else {
+                showMenu();
+            }
 
         } catch (UserException.DatabaseConnectionException e) {
             handleDatabaseConnectionError(e);
@@ -39,15 +107,129 @@ public class Main {
         } finally {
             shutdownApplication();
         }
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    // Неинтерактивный режим: import <file.csv> [skip|update], export <file>[.gz], serve [port],
+    // loadtest [key=value ...] или rebalance
+    private static void runCommand(String[] args) {
+        if ("import".equals(args[0]) && (args.length == 2 || args.length == 3)) {
+            DuplicatePolicy policy = args.length == 3 ? parseDuplicatePolicy(args[2]) : DuplicatePolicy.SKIP;
+            if (policy == null || !importUsers(Path.of(args[1]), policy)) {
+                exitCode = 1;
+            }
+        } else if ("export".equals(args[0]) && args.length == 2) {
+            if (!exportUsers(Path.of(args[1]))) {
+                exitCode = 1;
+            }
+        } else if ("serve".equals(args[0]) && args.length <= 2) {
+            int port = args.length == 2 ? Integer.parseInt(args[1]) : Integer.getInteger("userservice.http.port", 8080);
+            if (!serveHttp(port)) {
+                exitCode = 1;
+            }
+        } else if ("loadtest".equals(args[0])) {
+            exitCode = runLoadTest(args);
+        } else if ("rebalance".equals(args[0]) && args.length == 1) {
+            exitCode = rebalanceShards();
+        } else {
+            System.err.println("Usage: import <file.csv> [skip|update]");
+            System.err.println("       export <file.csv|file.jsonl>[.gz]");
+            System.err.println("       serve [port]");
+            System.err.println("       loadtest [workers=16] [duration=30] [warmup=10] [dataset=10000]"
+                    + " [mode=closed|open] [rate=<ops/sec>] [mix=" + WorkloadMix.DEFAULT + "]");
+            System.err.println("       rebalance   (after adding a shard to -Duserservice.shards)");
+            exitCode = 2;
+        }
+    }
+
+    // -Duserservice.name-index=true включает индекс триграмм для поиска по имени
+    private static UserDao createUserDao() {
+        if (!Boolean.getBoolean("userservice.name-index")) {
+            userDaoImpl = new UserDaoImpl();
+            return userDaoImpl;
+        }
+
+        TrigramIndex nameIndex = new TrigramIndex(
+                Long.getLong("userservice.name-index.max-entries", 20_000_000L),
+                Integer.getInteger("userservice.name-index.max-candidates", 1000));
+        userDaoImpl = new UserDaoImpl(nameIndex);
+        userDaoImpl.warmNameIndex();
+        return userDaoImpl;
+    }
+
+    // -Duserservice.shards=<jdbc url>,... - дополнительные шарды, основная БД остаётся шардом 0
+    private static UserDao withShards(UserDao primary) {
+        List<String> urls = HibernateUtil.getShardUrls();
+        if (urls.isEmpty()) {
+            return primary;
+        }
+        if (!HibernateUtil.getReplicaUrls().isEmpty()) {
+            throw new UserException("userservice.replicas cannot be combined with userservice.shards");
+        }
+        shardDaos.add(primary);
+        for (int i = 0; i < urls.size(); i++) {
+            SessionFactory factory = HibernateUtil.buildShardSessionFactory(urls.get(i), "user-service-shard-" + (i + 1));
+            secondaryFactories.add(factory);
+            shardDaos.add(new UserDaoImpl(factory));
+        }
+        SessionFactory shardZero = HibernateUtil.getSessionFactory();
+        shardedDao = new ShardedUserDao(shardDaos, ShardedUserDao.sequenceOf(shardZero),
+                ShardedUserDao.collationOf(shardZero));
+        logger.info("Users are sharded over {} databases", shardDaos.size());
+        return shardedDao;
+    }
+
+    // -Duserservice.save-coalescer=true объединяет одновременные save в общие транзакции.
+    // Стоит ниже маршрутизации по репликам: read-your-writes отмечает поток вызывающего, а не писателя
+    private static UserDao withCoalescer(UserDao primary) {
+        if (!Boolean.getBoolean("userservice.save-coalescer")) {
+            return primary;
+        }
+        coalescer = new CoalescingUserDao(primary,
+                Integer.getInteger("userservice.save-coalescer.max-batch", 50),
+                Duration.ofMillis(Long.getLong("userservice.save-coalescer.max-latency-ms", 5)));
+        metrics.coalescer(coalescer);
+        logger.info("Concurrent saves are coalesced: up to {} rows or {} ms per transaction",
+                coalescer.getMaxBatchSize(), coalescer.getMaxLatencyMillis());
+        return coalescer;
+    }
+
+    // -Duserservice.single-flight=true: одновременные findById/findByEmail одного ключа ждут один запрос.
+    // Ниже маршрутизации по репликам, иначе недавно писавший поток мог бы получить ответ реплики
+    private static UserDao withSingleFlight(UserDao primary) {
+        if (!Boolean.getBoolean("userservice.single-flight")) {
+            return primary;
+        }
+        singleFlight = new SingleFlightUserDao(primary, Integer.getInteger("userservice.single-flight.stripes", 64));
+        metrics.singleFlight(singleFlight);
+        return singleFlight;
+    }
+
+    // -Duserservice.replicas=<jdbc url>,... направляет чтение на реплики, запись остаётся на primary
+    private static UserDao withReplicas(UserDao primary) {
+        List<String> urls = HibernateUtil.getReplicaUrls();
+        if (urls.isEmpty()) {
+            return primary;
+        }
+        List<UserDao> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            SessionFactory factory = HibernateUtil.buildReplicaSessionFactory(urls.get(i), "user-service-replica-" + i);
+            secondaryFactories.add(factory);
+            replicas.add(new UserDaoImpl(factory));
+        }
+        return new ReplicaRoutingUserDao(primary, replicas,
+                Duration.ofMillis(Long.getLong("userservice.replicas.read-your-writes-ms", 5000)),
+                Duration.ofMillis(Long.getLong("userservice.replicas.retry-after-ms", 10_000)));
     }
 
     private static boolean checkDatabaseConnection() {
         try {
             logger.info("Checking database connection...");
-            userDao = new UserDaoImpl();
 
-            // Простая проверка подключения
-            userDao.findAll();
+            // Проверка готовности: SELECT 1, без обращения к таблицам
+            HibernateUtil.ping();
             logger.info("Database connection established successfully");
             return true;
 
@@ -63,6 +245,15 @@ public class Main {
         }
     }
 
+    // Время запуска отслеживаем по логу: от старта JVM и от входа в main до готовности к работе
+    private static void logStartupTime(long startupStart) {
+        logger.info("Startup completed in {} ms (JVM uptime {} ms, SessionFactory {} ms, {} mode)",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startupStart),
+                ManagementFactory.getRuntimeMXBean().getUptime(),
+                HibernateUtil.getBootstrapTime().toMillis(),
+                HibernateUtil.isProductionMode() ? "production" : "development");
+    }
+
     private static void showMenu() {
         boolean running = true;
 
@@ -77,7 +268,9 @@ public class Main {
                 System.out.println("6. Find User by Email");
                 System.out.println("7. Find Users by Name");
                 System.out.println("8. Test Database Connection");
-                System.out.println("9. Exit");
+                System.out.println("9. Import Users from CSV");
+                System.out.println("10. Export Users");
+                System.out.println("0. Exit");
                 System.out.print("Choose an option: ");
 
                 int choice = Integer.parseInt(scanner.nextLine());
@@ -108,6 +301,12 @@ public class Main {
                         testDatabaseConnection();
                         break;
                     case 9:
+                        importUsersFromCsv();
+                        break;
+                    case 10:
+                        exportUsersToFile();
+                        break;
+                    case 0:
                         running = false;
                         System.out.println("👋 Goodbye!");
                         break;
@@ -173,13 +372,28 @@ public class Main {
     private static void findAllUsers() {
         try {
             System.out.println("\n--- All Users ---");
-            List<User> users = userDao.findAll();
+            Long cursor = null;
+            int total = 0;
 
-            if (users.isEmpty()) {
+            while (true) {
+                Page<UserSummary> page = userDao.findSummaryPage(cursor, PAGE_SIZE);
+                page.getItems().forEach(user -> System.out.println("👤 " + user));
+                total += page.getItems().size();
+
+                if (!page.hasNext()) {
+                    break;
+                }
+                System.out.print("Press Enter for the next page or 'q' to stop: ");
+                if ("q".equalsIgnoreCase(scanner.nextLine().trim())) {
+                    break;
+                }
+                cursor = page.getNextCursor();
+            }
+
+            if (total == 0) {
                 System.out.println("ℹ️ No users found.");
             } else {
-                users.forEach(user -> System.out.println("👤 " + user));
-                System.out.println("📊 Total users: " + users.size());
+                System.out.println("📊 Users shown: " + total);
             }
 
         } catch (UserException e) {
@@ -201,26 +415,33 @@ public class Main {
 
             User user = userOpt.get();
             System.out.println("Current user: " + user);
+            UserPatch patch = new UserPatch();
 
             System.out.print("Enter new name (current: " + user.getName() + "): ");
             String name = scanner.nextLine();
             if (!name.trim().isEmpty()) {
-                user.setName(name);
+                patch.withName(name);
             }
 
             System.out.print("Enter new email (current: " + user.getEmail() + "): ");
             String email = scanner.nextLine();
             if (!email.trim().isEmpty()) {
-                user.setEmail(email);
+                patch.withEmail(email);
             }
 
             System.out.print("Enter new age (current: " + user.getAge() + "): ");
             String ageInput = scanner.nextLine();
             if (!ageInput.trim().isEmpty()) {
-                user.setAge(Integer.parseInt(ageInput));
+                patch.withAge(Integer.parseInt(ageInput));
             }
 
-            User updatedUser = userDao.update(user);
+            if (patch.isEmpty()) {
+                System.out.println("ℹ️ Nothing to update.");
+                return;
+            }
+
+            // Записываются только изменённые колонки
+            User updatedUser = userDao.patch(id, patch);
             System.out.println("✅ User updated successfully: " + updatedUser);
 
         } catch (UserException.EntityNotFoundException e) {
@@ -279,7 +500,7 @@ public class Main {
             System.out.print("Enter name (or part of name): ");
             String name = scanner.nextLine().trim();
 
-            List<User> users = userDao.findByName(name);
+            List<UserSummary> users = userDao.findSummariesByName(name);
             if (users.isEmpty()) {
                 System.out.println("❌ No users found with name containing: " + name);
             } else {
@@ -292,15 +513,207 @@ public class Main {
         }
     }
 
+    private static void importUsersFromCsv() {
+        System.out.println("\n--- Import Users from CSV ---");
+        System.out.print("Enter CSV file path (name,email,age): ");
+        Path file = Path.of(scanner.nextLine().trim());
+
+        System.out.print("Existing emails - skip or update? [skip]: ");
+        String answer = scanner.nextLine().trim();
+        DuplicatePolicy policy = answer.isEmpty() ? DuplicatePolicy.SKIP : parseDuplicatePolicy(answer);
+        if (policy != null) {
+            importUsers(file, policy);
+        }
+    }
+
+    // Отклонённые строки пишутся рядом с файлом: <file>.rejects.csv (line,reason,value)
+    private static boolean importUsers(Path file, DuplicatePolicy policy) {
+        if (rejectIfSharded("Import")) {
+            return false;
+        }
+        if (!Files.isRegularFile(file)) {
+            System.out.println("❌ File not found: " + file);
+            return false;
+        }
+        Path rejectsFile = file.resolveSibling(file.getFileName() + ".rejects.csv");
+
+        try (Writer rejects = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8)) {
+            ImportResult result = new UserCsvImporter(policy)
+                    .importFile(file, rejects, progress -> System.out.print("\r⏳ " + progress),
+                            userDaoImpl::reindexNames);
+            System.out.println();
+            System.out.printf("✅ Imported %,d rows: %,d inserted, %,d updated, %,d unchanged, %,d invalid, %,d duplicates (%,d ms, %,.0f rows/sec)%n",
+                    result.getRowsRead(), result.getInserted(), result.getUpdated(), result.getUnchanged(),
+                    result.getInvalid(), result.getDuplicates(), result.getElapsedMillis(), result.getRowsPerSecond());
+            if (result.getInvalid() + result.getDuplicates() > 0) {
+                System.out.println("📄 Rejected rows: " + rejectsFile);
+            }
+
+            // Индекс триграмм дополняется вставленными строками (новые имена обновлённых
+            // строк importFile уже передал в reindexNames)
+            userDaoImpl.warmNameIndex();
+            return true;
+
+        } catch (UserException e) {
+            System.out.println();
+            logger.error("Import failed", e);
+            System.out.println("❌ Import failed: " + e.getMessage());
+            return false;
+        } catch (IOException e) {
+            logger.error("Cannot write rejects file {}", rejectsFile, e);
+            System.out.println("❌ Cannot write rejects file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void exportUsersToFile() {
+        System.out.println("\n--- Export Users ---");
+        System.out.print("Enter file path (.csv or .jsonl, .gz to compress): ");
+        exportUsers(Path.of(scanner.nextLine().trim()));
+    }
+
+    private static boolean exportUsers(Path file) {
+        if (rejectIfSharded("Export")) {
+            return false;
+        }
+        try {
+            ExportResult result = new UserExporter()
+                    .export(file, ExportFormat.fromFileName(file), rows -> System.out.printf("\r⏳ %,d rows", rows));
+            System.out.println();
+            System.out.printf("✅ Exported %,d users to %s (%,d bytes, %,d ms, %,.0f rows/sec)%n",
+                    result.getRows(), result.getFile(), result.getBytes(), result.getElapsedMillis(),
+                    result.getRowsPerSecond());
+            return true;
+        } catch (UserException e) {
+            System.out.println();
+            logger.error("Export failed", e);
+            System.out.println("❌ Export failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Импорт и выгрузка работают напрямую с основной БД: под шардами импорт положил бы все строки
+    // в шард 0 с id без номера слота, а выгрузка прочитала бы только шард 0
+    private static boolean rejectIfSharded(String operation) {
+        if (shardedDao == null) {
+            return false;
+        }
+        System.out.println("❌ " + operation + " is not supported while users are sharded (-Duserservice.shards)");
+        return true;
+    }
+
+    // Работает до SIGTERM/Ctrl+C; хук завершения ждёт, пока main закроет сервер и SessionFactory
+    private static boolean serveHttp(int port) {
+        CountDownLatch stopRequested = new CountDownLatch(1);
+        Thread mainThread = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopRequested.countDown();
+            try {
+                mainThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "http-shutdown"));
+
+        UserService userService = new UserService(userDao);
+        try (UserHttpServer server = UserHttpServer.start(userService, health::getHealth,
+                new InetSocketAddress(port), Integer.getInteger("userservice.http.threads", 0))) {
+            System.out.println("🌐 Listening on http://localhost:" + server.getPort() + " (Ctrl+C to stop)");
+            stopRequested.await();
+            System.out.println("🛑 Stopping HTTP server...");
+            return true;
+        } catch (IOException e) {
+            logger.error("Cannot start HTTP server on port {}", port, e);
+            System.out.println("❌ Cannot start HTTP server: " + e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    // Нагрузка идёт через тот же стек DAO, что и меню (метрики, JFR), над настоящим UserDaoImpl
+    private static int runLoadTest(String[] args) {
+        LoadTestConfig config;
+        try {
+            config = LoadTestConfig.parse(args, 1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            return 2;
+        }
+
+        System.out.println("🚀 " + config);
+        try {
+            LoadTestReport report = new LoadTest(userDao, config)
+                    .run(progress -> System.out.print("\r⏳ " + progress + "        "));
+            System.out.println();
+            report.print(System.out);
+            return 0;
+        } catch (UserException e) {
+            System.out.println();
+            logger.error("Load test failed", e);
+            System.out.println("❌ Load test failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    // Переносит пользователей на шарды по текущему кольцу; запускать при остановленной записи
+    private static int rebalanceShards() {
+        if (shardDaos.isEmpty()) {
+            System.err.println("❌ Sharding is not configured (-Duserservice.shards=<jdbc url>,...)");
+            return 2;
+        }
+        try {
+            RebalanceResult result = new ShardRebalancer(shardDaos)
+                    .rebalance(progress -> System.out.print("\r⏳ " + progress + "        "));
+            System.out.println();
+            System.out.printf("✅ Rebalanced %d shards: %,d scanned, %,d moved, %,d failed in %,d ms%n",
+                    result.getShards(), result.getScanned(), result.getMoved(), result.getFailed(),
+                    result.getElapsedMillis());
+            return result.getFailed() == 0 ? 0 : 1;
+        } catch (UserException e) {
+            System.out.println();
+            logger.error("Rebalance failed", e);
+            System.out.println("❌ Rebalance failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static DuplicatePolicy parseDuplicatePolicy(String value) {
+        try {
+            return DuplicatePolicy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ Unknown duplicate policy: " + value + " (expected skip or update)");
+            return null;
+        }
+    }
+
     private static void testDatabaseConnection() {
         try {
             System.out.println("\n--- Test Database Connection ---");
-            boolean isConnected = ((UserDaoImpl) userDao).testConnection();
+            DatabaseHealth databaseHealth = health.getHealth();
 
-            if (isConnected) {
+            if (databaseHealth.getStatus() == HealthStatus.UP) {
                 System.out.println("✅ Database connection is active and working");
+                System.out.println("💓 " + databaseHealth);
+                System.out.println("📊 " + HibernateUtil.getPoolStats());
+                HibernateUtil.getCacheStats().forEach(stats -> System.out.println("🗄️ " + stats));
+                metrics.getOperations().stream()
+                        .filter(operation -> operation.getTotalCount() > 0)
+                        .forEach(operation -> System.out.println("📈 " + operation));
+                if (coalescer != null) {
+                    System.out.println("📦 " + coalescer);
+                }
+                if (singleFlight != null) {
+                    System.out.println("🔀 " + singleFlight);
+                }
+            } else if (databaseHealth.getStatus() == HealthStatus.DEGRADED) {
+                System.out.println("⚠️ Database connection is degraded");
+                System.out.println("💓 " + databaseHealth);
+                System.out.println("📊 " + HibernateUtil.getPoolStats());
             } else {
-                System.out.println("❌ Database connection test failed");
+                System.out.println("❌ Database is down");
+                System.out.println("💓 " + databaseHealth);
             }
 
         } catch (Exception e) {
@@ -332,6 +745,21 @@ public class Main {
 
     private static void shutdownApplication() {
         try {
+            if (health != null) {
+                health.close();
+            }
+            if (coalescer != null) {
+                coalescer.close();
+            }
+            if (metrics != null) {
+                metrics.close();
+            }
+            if (shardedDao != null) {
+                shardedDao.close();
+            }
+            for (SessionFactory factory : secondaryFactories) {
+                factory.close();
+            }
             HibernateUtil.shutdown();
             scanner.close();
             logger.info("Application stopped gracefully");
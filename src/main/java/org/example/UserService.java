@@ -1,9 +1,13 @@
 package org.example;
 
 
+import org.example.dao.Page;
+import org.example.dao.UpsertResult;
 import org.example.dao.UserDao;
+import org.example.dao.UserPatch;
 import org.example.exception.UserException;
 import org.example.model.User;
+import org.example.model.UserSummary;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +26,13 @@ public class UserService {
         return userDao.save(user);
     }
 
+    // Создаёт пользователя или обновляет имя и возраст существующего с тем же email - одним запросом
+    public UpsertResult createOrUpdateUser(String name, String email, Integer age) {
+        validateUserData(name, email, age);
+
+        return userDao.upsertByEmail(new User(name, email, age));
+    }
+
     public Optional<User> getUserById(Long id) {
         if (id == null || id <= 0) {
             throw new UserException.ValidationException("Invalid user ID");
@@ -33,6 +44,11 @@ public class UserService {
         return userDao.findAll();
     }
 
+    // Keyset-страница кратких записей; курсор и размер страницы проверяет DAO
+    public Page<UserSummary> getUserPage(Long afterId, int limit) {
+        return userDao.findSummaryPage(afterId, limit);
+    }
+
     public User updateUser(Long id, String name, String email, Integer age) {
         if (id == null || id <= 0) {
             throw new UserException.ValidationException("Invalid user ID");
@@ -40,14 +56,12 @@ public class UserService {
 
         validateUserData(name, email, age);
 
-        User user = userDao.findById(id)
-                .orElseThrow(() -> new UserException.EntityNotFoundException("User not found with ID: " + id));
-
-        user.setName(name);
-        user.setEmail(email);
-        user.setAge(age);
-
-        return userDao.update(user);
+        // Один UPDATE ... RETURNING вместо чтения и записи;
+        // отсутствие пользователя DAO сообщает через EntityNotFoundException
+        return userDao.patch(id, new UserPatch()
+                .withName(name)
+                .withEmail(email)
+                .withAge(age));
     }
 
     public void deleteUser(Long id) {
@@ -71,6 +85,13 @@ public class UserService {
         return userDao.findByName(name);
     }
 
+    public List<UserSummary> searchUserSummariesByName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new UserException.ValidationException("Name cannot be empty");
+        }
+        return userDao.findSummariesByName(name);
+    }
+
     private void validateUserData(String name, String email, Integer age) {
         if (name == null || name.trim().isEmpty()) {
             throw new UserException.ValidationException("User name cannot be empty");
@@ -0,0 +1,85 @@
+package org.example.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Разбор и запись строк CSV (RFC 4180): поля через запятую, кавычки удваиваются.
+// Поле в кавычках не может содержать перевод строки - одна запись на строку файла
+public final class CsvCodec {
+
+    private CsvCodec() {
+    }
+
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+
+        while (true) {
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Unexpected character after quoted field");
+                }
+            } else {
+                int end = line.indexOf(',', i);
+                if (end < 0) {
+                    end = line.length();
+                }
+                field.append(line, i, end);
+                i = end;
+            }
+
+            fields.add(field.toString());
+            field.setLength(0);
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++;
+        }
+    }
+
+    // Кавычки только там, где без них поле прочитается иначе; пустая строка
+    // берётся в кавычки, чтобы COPY не принял её за NULL
+    public static StringBuilder appendField(StringBuilder out, String value) {
+        if (value.isEmpty()) {
+            return out.append("\"\"");
+        }
+        if (!needsQuotes(value)) {
+            return out.append(value);
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1));
+    }
+}
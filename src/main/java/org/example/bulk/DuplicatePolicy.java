@@ -0,0 +1,9 @@
+package org.example.bulk;
+
+// Что делать со строкой импорта, email которой уже есть в users
+public enum DuplicatePolicy {
+    // Строка уходит в отклонённые, существующий пользователь не меняется
+    SKIP,
+    // Имя и возраст существующего пользователя заменяются значениями из файла
+    UPDATE
+}
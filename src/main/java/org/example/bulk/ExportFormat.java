@@ -0,0 +1,21 @@
+package org.example.bulk;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+// Формат выгрузки пользователей
+public enum ExportFormat {
+    // id,name,email,age,created_at с заголовком
+    CSV,
+    // Один JSON-объект на строку
+    JSONL;
+
+    // По имени файла: .jsonl/.ndjson (в том числе .gz) - JSON Lines, иначе CSV
+    public static ExportFormat fromFileName(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson") ? JSONL : CSV;
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.bulk;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Итог выгрузки: число строк, размер файла (после сжатия) и время
+public class ExportResult {
+
+    private final Path file;
+    private final long rows;
+    private final long bytes;
+    private final long elapsedNanos;
+
+    public ExportResult(Path file, long rows, long bytes, long elapsedNanos) {
+        this.file = file;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? rows * 1e9 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportResult{" +
+                "file=" + file +
+                ", rows=" + rows +
+                ", bytes=" + bytes +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", rowsPerSecond=" + Math.round(getRowsPerSecond()) +
+                '}';
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.bulk;
+
+import java.util.concurrent.TimeUnit;
+
+// Промежуточное состояние импорта: сколько строк прочитано и отклонено к этому моменту
+public class ImportProgress {
+
+    private final long rowsRead;
+    private final long rowsRejected;
+    private final long elapsedNanos;
+
+    public ImportProgress(long rowsRead, long rowsRejected, long elapsedNanos) {
+        this.rowsRead = rowsRead;
+        this.rowsRejected = rowsRejected;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? rowsRead * 1e9 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d rows read, %,d rejected (%,.0f rows/sec)",
+                rowsRead, rowsRejected, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.bulk;
+
+import java.util.concurrent.TimeUnit;
+
+// Итог импорта. Отклонённые строки (invalid и duplicates) перечислены в файле отказов
+public class ImportResult {
+
+    private final long rowsRead;
+    private final long inserted;
+    private final long updated;
+    private final long unchanged;
+    private final long invalid;
+    private final long duplicates;
+    private final long elapsedNanos;
+
+    public ImportResult(long rowsRead, long inserted, long updated, long unchanged, long invalid,
+                        long duplicates, long elapsedNanos) {
+        this.rowsRead = rowsRead;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.unchanged = unchanged;
+        this.invalid = invalid;
+        this.duplicates = duplicates;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    // При DuplicatePolicy.UPDATE: строки users, где имя или возраст действительно изменились
+    public long getUpdated() {
+        return updated;
+    }
+
+    // Существующие email, у которых имя и возраст совпали с файлом: не переписываются
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    // Строки, не прошедшие проверку
+    public long getInvalid() {
+        return invalid;
+    }
+
+    // Повторы email внутри файла и (при DuplicatePolicy.SKIP) email, уже существующие в users
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? rowsRead * 1e9 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "rowsRead=" + rowsRead +
+                ", inserted=" + inserted +
+                ", updated=" + updated +
+                ", unchanged=" + unchanged +
+                ", invalid=" + invalid +
+                ", duplicates=" + duplicates +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", rowsPerSecond=" + Math.round(getRowsPerSecond()) +
+                '}';
+    }
+}
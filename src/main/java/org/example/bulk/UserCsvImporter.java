@@ -0,0 +1,532 @@
+package org.example.bulk;
+
+import org.example.dao.UserValidator;
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.example.model.UserSummary;
+import org.example.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Массовый импорт пользователей из CSV (name,email,age; заголовок необязателен).
+// Файл читается потоково пачками строк, пачки проверяются параллельно по правилам
+// UserValidator и по порядку пишутся через COPY во временную таблицу, откуда
+// одним INSERT ... SELECT переносятся в users. Всё выполняется в одной транзакции.
+// В памяти одновременно не больше 2 * validationThreads пачек, размер файла не важен
+public class UserCsvImporter {
+
+    private static final Logger logger = LogManager.getLogger(UserCsvImporter.class);
+
+    private static final int DEFAULT_BATCH_SIZE = 5000;
+    private static final int NAME_LENGTH = 100;
+    private static final int EMAIL_LENGTH = 150;
+    private static final int REJECT_FETCH_SIZE = 10_000;
+    private static final int UPDATED_PAGE_SIZE = 10_000;
+
+    private static final String CREATE_STAGING =
+            "CREATE TEMP TABLE users_import (line bigint NOT NULL, name varchar(" + NAME_LENGTH + ") NOT NULL, " +
+                    "email varchar(" + EMAIL_LENGTH + ") NOT NULL, age integer NOT NULL) ON COMMIT DROP";
+    private static final String COPY_STAGING =
+            "COPY users_import (line, name, email, age) FROM STDIN WITH (FORMAT csv)";
+    private static final String FILE_DUPLICATE =
+            "EXISTS (SELECT 1 FROM users_import j WHERE j.email = i.email AND j.line < i.line)";
+    // Id строк, изменённых при DuplicatePolicy.UPDATE: таблица переживает коммит,
+    // чтобы после него отдать новые имена страницами
+    private static final String CREATE_UPDATED =
+            "CREATE TEMP TABLE users_import_updated (id bigint PRIMARY KEY) ON COMMIT PRESERVE ROWS";
+    private static final String EXISTING_EMAIL =
+            "EXISTS (SELECT 1 FROM users u WHERE u.email = i.email)";
+
+    private final DuplicatePolicy duplicatePolicy;
+    private final int validationThreads;
+    private final int batchSize;
+
+    public UserCsvImporter(DuplicatePolicy duplicatePolicy) {
+        this(duplicatePolicy, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    public UserCsvImporter(DuplicatePolicy duplicatePolicy, int validationThreads, int batchSize) {
+        if (duplicatePolicy == null) {
+            throw new IllegalArgumentException("Duplicate policy is required");
+        }
+        if (validationThreads <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Validation threads and batch size must be positive");
+        }
+        this.duplicatePolicy = duplicatePolicy;
+        this.validationThreads = validationThreads;
+        this.batchSize = batchSize;
+    }
+
+    // rejects получает по строке CSV (line,reason,value) на каждую отклонённую строку, может быть null;
+    // progress вызывается после каждой записанной пачки
+    public ImportResult importFile(Path file, Writer rejects, Consumer<ImportProgress> progress) {
+        return importFile(file, rejects, progress, null);
+    }
+
+    // updated получает после коммита страницы пользователей, изменённых при DuplicatePolicy.UPDATE,
+    // с новыми именами (например, для индекса имён), может быть null
+    public ImportResult importFile(Path file, Writer rejects, Consumer<ImportProgress> progress,
+                                   Consumer<List<UserSummary>> updated) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importCsv(reader, rejects, progress, updated);
+        } catch (IOException e) {
+            throw new UserException("Cannot read import file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    public ImportResult importCsv(BufferedReader reader, Writer rejects, Consumer<ImportProgress> progress) {
+        return importCsv(reader, rejects, progress, null);
+    }
+
+    public ImportResult importCsv(BufferedReader reader, Writer rejects, Consumer<ImportProgress> progress,
+                                  Consumer<List<UserSummary>> updated) {
+        long start = System.nanoTime();
+        Transaction transaction = null;
+
+        // Соединение держится до закрытия сессии: users_import_updated видна только в нём
+        try (Session session = HibernateUtil.getSessionFactory().withOptions()
+                .connectionHandlingMode(PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_HOLD)
+                .openSession()) {
+            transaction = session.beginTransaction();
+            String insertUsers = insertUsers(session);
+            ImportResult result = session.doReturningWork(connection ->
+                    load(connection, reader, new RejectWriter(rejects), progress, start, insertUsers));
+            transaction.commit();
+
+            // Данные изменены в обход Hibernate: закэшированные сущности и запросы устарели
+            HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+            if (duplicatePolicy == DuplicatePolicy.UPDATE) {
+                transaction = session.beginTransaction();
+                session.doWork(connection -> publishUpdated(connection, updated));
+                transaction.commit();
+            }
+            logger.info("Import finished: {}", result);
+            return result;
+
+        } catch (UserException e) {
+            rollback(transaction);
+            throw e;
+        } catch (UncheckedIOException e) {
+            rollback(transaction);
+            throw new UserException("Import failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (Exception e) {
+            rollback(transaction);
+            throw new UserException("Import failed: " + e.getMessage(), e);
+        }
+    }
+
+    private ImportResult load(Connection connection, BufferedReader reader, RejectWriter rejects,
+                              Consumer<ImportProgress> progress, long start, String insertUsers) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING);
+        }
+
+        CopyCounters counters = copy(connection, reader, rejects, progress, start);
+        logger.info("Staged {} of {} rows in {} ms, merging into users",
+                counters.staged, counters.rows, (System.nanoTime() - start) / 1_000_000);
+
+        // Статистика нужна планировщику для hash join с users
+        executeUpdate(connection, "ANALYZE users_import");
+
+        long duplicates = rejectAndDelete(connection, rejects, FILE_DUPLICATE, "Duplicate email in file");
+        long updated = 0;
+        long unchanged = 0;
+        if (duplicatePolicy == DuplicatePolicy.UPDATE) {
+            // Совпадающие строки не переписываются: лишние версии строк и записи в индексах
+            executeUpdate(connection, CREATE_UPDATED);
+            updated = executeUpdate(connection,
+                    "WITH updated AS (UPDATE users u SET name = i.name, age = i.age FROM users_import i " +
+                            "WHERE u.email = i.email AND (u.name, u.age) IS DISTINCT FROM (i.name, i.age) " +
+                            "RETURNING u.id) INSERT INTO users_import_updated SELECT id FROM updated");
+            unchanged = executeUpdate(connection, "DELETE FROM users_import i WHERE " + EXISTING_EMAIL) - updated;
+        } else {
+            duplicates += rejectAndDelete(connection, rejects, EXISTING_EMAIL, "Email already exists");
+        }
+
+        long remaining = counters.staged - duplicates - updated - unchanged;
+        long inserted = remaining > 0 ? insertStaged(connection, insertUsers, remaining) : 0;
+        // Email, вставленные параллельно другими транзакциями после проверки
+        duplicates += remaining - inserted;
+
+        rejects.flush();
+        return new ImportResult(counters.rows, inserted, updated, unchanged, counters.invalid, duplicates,
+                System.nanoTime() - start);
+    }
+
+    private CopyCounters copy(Connection connection, BufferedReader reader, RejectWriter rejects,
+                              Consumer<ImportProgress> progress, long start) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+        ExecutorService validators = Executors.newFixedThreadPool(validationThreads, validatorThreads());
+        Deque<Future<ValidatedBatch>> inFlight = new ArrayDeque<>();
+        CopyCounters counters = new CopyCounters();
+
+        try {
+            long lineNumber = 1;
+            String line = reader.readLine();
+            ColumnLayout layout = ColumnLayout.DEFAULT;
+            if (line != null && ColumnLayout.isHeader(line)) {
+                layout = ColumnLayout.fromHeader(line);
+                line = reader.readLine();
+                lineNumber++;
+            }
+
+            List<String> batch = new ArrayList<>(batchSize);
+            long batchStart = lineNumber;
+            while (line != null) {
+                batch.add(line);
+                if (batch.size() == batchSize) {
+                    submit(validators, inFlight, batch, batchStart, layout);
+                    if (inFlight.size() >= validationThreads * 2) {
+                        write(inFlight.poll(), copyIn, rejects, counters, progress, start);
+                    }
+                    batch = new ArrayList<>(batchSize);
+                    batchStart = lineNumber + 1;
+                }
+                line = reader.readLine();
+                lineNumber++;
+            }
+            if (!batch.isEmpty()) {
+                submit(validators, inFlight, batch, batchStart, layout);
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), copyIn, rejects, counters, progress, start);
+            }
+            copyIn.endCopy();
+            return counters;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            validators.shutdownNow();
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void submit(ExecutorService validators, Deque<Future<ValidatedBatch>> inFlight,
+                        List<String> lines, long firstLine, ColumnLayout layout) {
+        inFlight.add(validators.submit(() -> validate(lines, firstLine, layout)));
+    }
+
+    private void write(Future<ValidatedBatch> pending, CopyIn copyIn, RejectWriter rejects,
+                       CopyCounters counters, Consumer<ImportProgress> progress, long start) throws SQLException {
+        ValidatedBatch batch = await(pending);
+        copyIn.writeToCopy(batch.copyData, 0, batch.copyData.length);
+        rejects.write(batch.rejects);
+
+        counters.rows += batch.rows;
+        counters.staged += batch.rows - batch.rejects.size();
+        counters.invalid += batch.rejects.size();
+        if (progress != null) {
+            progress.accept(new ImportProgress(counters.rows, counters.invalid, System.nanoTime() - start));
+        }
+    }
+
+    private static ValidatedBatch await(Future<ValidatedBatch> pending) {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UserException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new UserException("Validation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Выполняется в пуле проверки: разбор строк, проверка и подготовка данных для COPY
+    static ValidatedBatch validate(List<String> lines, long firstLine, ColumnLayout layout) {
+        StringBuilder copy = new StringBuilder(lines.size() * 64);
+        List<String> rejects = new ArrayList<>();
+        int rows = 0;
+
+        for (int i = 0; i < lines.size(); i++) {
+            String raw = lines.get(i);
+            if (raw.isBlank()) {
+                continue;
+            }
+            rows++;
+            long lineNumber = firstLine + i;
+            try {
+                User user = layout.parse(raw);
+                copy.append(lineNumber).append(',');
+                CsvCodec.appendField(copy, user.getName()).append(',');
+                CsvCodec.appendField(copy, user.getEmail()).append(',');
+                copy.append(user.getAge()).append('\n');
+            } catch (UserException.ValidationException e) {
+                rejects.add(RejectWriter.format(lineNumber, e.getMessage(), raw));
+            }
+        }
+        return new ValidatedBatch(copy.toString().getBytes(StandardCharsets.UTF_8), rows, rejects);
+    }
+
+    // Удаление и выборка отказов одним проходом; строки читаются курсором (fetch size),
+    // чтобы их число не влияло на память
+    private long rejectAndDelete(Connection connection, RejectWriter rejects, String condition,
+                                 String reason) throws SQLException {
+        long deleted = 0;
+        try (Statement statement = connection.createStatement()) {
+            statement.setFetchSize(REJECT_FETCH_SIZE);
+            try (ResultSet rs = statement.executeQuery(
+                    "WITH rejected AS (DELETE FROM users_import i WHERE " + condition + " RETURNING line, email) " +
+                            "SELECT line, email FROM rejected ORDER BY line")) {
+                while (rs.next()) {
+                    rejects.write(RejectWriter.format(rs.getLong(1), reason, rs.getString(2)));
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // Уже после коммита: keyset-проход по изменённым строкам, в памяти одна страница
+    private static void publishUpdated(Connection connection, Consumer<List<UserSummary>> updated) throws SQLException {
+        try {
+            long after = Long.MIN_VALUE;
+            while (updated != null) {
+                List<UserSummary> page = new ArrayList<>(UPDATED_PAGE_SIZE);
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT u.id, u.name, u.email FROM users_import_updated c JOIN users u ON u.id = c.id " +
+                                "WHERE c.id > ? ORDER BY c.id LIMIT " + UPDATED_PAGE_SIZE)) {
+                    statement.setLong(1, after);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            page.add(new UserSummary(rs.getLong(1), rs.getString(2), rs.getString(3)));
+                        }
+                    }
+                }
+                if (!page.isEmpty()) {
+                    updated.accept(page);
+                    after = page.get(page.size() - 1).getId();
+                }
+                if (page.size() < UPDATED_PAGE_SIZE) {
+                    break;
+                }
+            }
+        } finally {
+            // Соединение вернётся в пул, временная таблица в нём не нужна
+            executeUpdate(connection, "DROP TABLE IF EXISTS users_import_updated");
+        }
+    }
+
+    private long insertStaged(Connection connection, String insertUsers, long rows) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(insertUsers)) {
+            statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            statement.setLong(2, rows);
+            return statement.executeLargeUpdate();
+        }
+    }
+
+    // Id раздаются блоками генератора User, как это сделал бы pooled-оптимизатор Hibernate:
+    // nextval возвращает верхнюю границу блока из increment_size id. Последовательность и
+    // размер блока берутся из генератора, а не дублируются здесь
+    private static String insertUsers(Session session) {
+        IdentifierGenerator generator = ((SessionFactoryImplementor) session.getSessionFactory()).getMetamodel()
+                .entityPersister(User.class).getIdentifierGenerator();
+        if (!(generator instanceof SequenceStyleGenerator sequence)
+                || !(sequence.getOptimizer() instanceof PooledOptimizer)) {
+            throw new UserException("Bulk import requires a pooled sequence generator for User ids, found "
+                    + generator.getClass().getName());
+        }
+        DatabaseStructure structure = sequence.getDatabaseStructure();
+        int block = structure.getIncrementSize();
+        String name = structure.getPhysicalName().render();
+        // Второй параметр - число строк; блоков на один больше: первый nextval может вернуть
+        // значение меньше block (начало последовательности), такой блок пропускается
+        return "INSERT INTO users (id, name, email, age, created_at) " +
+                "SELECT b.hi - " + (block - 1) + " + s.rn % " + block + ", s.name, s.email, s.age, ? " +
+                "FROM (SELECT name, email, age, row_number() OVER (ORDER BY line) - 1 AS rn FROM users_import) s " +
+                "JOIN (SELECT hi, row_number() OVER (ORDER BY hi) - 1 AS block " +
+                "      FROM (SELECT nextval('" + name + "') AS hi " +
+                "            FROM generate_series(0, (?::bigint + " + (block - 1) + ") / " + block + ")) v " +
+                "      WHERE hi >= " + block + ") b ON b.block = s.rn / " + block + " " +
+                "ON CONFLICT (email) DO NOTHING";
+    }
+
+    private static long executeUpdate(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeLargeUpdate(sql);
+        }
+    }
+
+    private static void rollback(Transaction transaction) {
+        if (transaction != null && transaction.isActive()) {
+            try {
+                transaction.rollback();
+                logger.warn("Transaction rolled back for import operation");
+            } catch (Exception rollbackEx) {
+                logger.error("Failed to rollback transaction for import operation", rollbackEx);
+            }
+        }
+    }
+
+    private static ThreadFactory validatorThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "user-import-validator-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Порядок колонок name, email, age: по умолчанию или по заголовку файла
+    static final class ColumnLayout {
+
+        static final ColumnLayout DEFAULT = new ColumnLayout(0, 1, 2);
+
+        private final int name;
+        private final int email;
+        private final int age;
+        private final int width;
+
+        private ColumnLayout(int name, int email, int age) {
+            this.name = name;
+            this.email = email;
+            this.age = age;
+            this.width = Math.max(name, Math.max(email, age)) + 1;
+        }
+
+        static boolean isHeader(String line) {
+            return line.toLowerCase(Locale.ROOT).contains("email") && !line.contains("@");
+        }
+
+        static ColumnLayout fromHeader(String line) {
+            List<String> columns = new ArrayList<>();
+            for (String column : CsvCodec.parseLine(line)) {
+                columns.add(column.trim().toLowerCase(Locale.ROOT));
+            }
+            if (!columns.contains("name") || !columns.contains("email") || !columns.contains("age")) {
+                throw new UserException.ValidationException("CSV header must contain name, email and age columns");
+            }
+            return new ColumnLayout(columns.indexOf("name"), columns.indexOf("email"), columns.indexOf("age"));
+        }
+
+        User parse(String raw) {
+            List<String> fields;
+            try {
+                fields = CsvCodec.parseLine(raw);
+            } catch (IllegalArgumentException e) {
+                throw new UserException.ValidationException("Malformed CSV: " + e.getMessage());
+            }
+            if (fields.size() < width) {
+                throw new UserException.ValidationException("Expected name, email and age");
+            }
+
+            Integer age;
+            try {
+                age = Integer.valueOf(fields.get(this.age).trim());
+            } catch (NumberFormatException e) {
+                throw new UserException.ValidationException("Age must be a number");
+            }
+            User user = new User(fields.get(name).trim(), fields.get(email).trim(), age);
+            UserValidator.validateUser(user);
+
+            // Иначе COPY во временную таблицу прервёт весь импорт
+            if (user.getName().length() > NAME_LENGTH) {
+                throw new UserException.ValidationException("User name is longer than " + NAME_LENGTH + " characters");
+            }
+            if (user.getEmail().length() > EMAIL_LENGTH) {
+                throw new UserException.ValidationException("Email is longer than " + EMAIL_LENGTH + " characters");
+            }
+            return user;
+        }
+    }
+
+    static final class ValidatedBatch {
+
+        final byte[] copyData;
+        final int rows;
+        final List<String> rejects;
+
+        ValidatedBatch(byte[] copyData, int rows, List<String> rejects) {
+            this.copyData = copyData;
+            this.rows = rows;
+            this.rejects = rejects;
+        }
+    }
+
+    private static final class CopyCounters {
+        long rows;
+        long staged;
+        long invalid;
+    }
+
+    // Отказы в формате CSV: номер строки файла, причина, исходная строка или email
+    private static final class RejectWriter {
+
+        private final Writer out;
+
+        RejectWriter(Writer out) {
+            this.out = out;
+        }
+
+        static String format(long line, String reason, String value) {
+            StringBuilder reject = new StringBuilder().append(line).append(',');
+            CsvCodec.appendField(reject, reason).append(',');
+            return CsvCodec.appendField(reject, value).append('\n').toString();
+        }
+
+        void write(String reject) {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.write(reject);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void write(List<String> rejects) {
+            rejects.forEach(this::write);
+        }
+
+        void flush() {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.example.bulk;
+
+import org.example.exception.UserException;
+import org.example.util.HibernateUtil;
+import org.example.util.Json;
+import org.hibernate.FlushMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+// Полная выгрузка users в CSV или JSON Lines (.gz - со сжатием). Таблица читается
+// курсором PostgreSQL (ScrollableResults с fetch size) без загрузки сущностей,
+// строки кодируются в общий буфер и пишутся в канал NIO, поэтому память
+// не зависит от размера таблицы. Файл пишется во временный <file>.part
+// и переименовывается только после успешной выгрузки
+public class UserExporter {
+
+    private static final Logger logger = LogManager.getLogger(UserExporter.class);
+
+    private static final int DEFAULT_FETCH_SIZE = 10_000;
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int FLUSH_CHARS = 64 * 1024;
+    private static final String EXPORT_QUERY =
+            "select u.id, u.name, u.email, u.age, u.createdAt from User u order by u.id";
+
+    private final int fetchSize;
+
+    public UserExporter() {
+        this(DEFAULT_FETCH_SIZE);
+    }
+
+    public UserExporter(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be positive");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    // progress получает число выгруженных строк после каждой порции fetchSize, может быть null
+    public ExportResult export(Path file, ExportFormat format, LongConsumer progress) {
+        long start = System.nanoTime();
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        boolean gzip = file.getFileName().toString().endsWith(".gz");
+
+        try {
+            long rows;
+            try (Session session = HibernateUtil.getSessionFactory().openSession();
+                 ChannelWriter out = new ChannelWriter(openChannel(partial, gzip))) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+                // Курсор PostgreSQL работает только внутри транзакции
+                Transaction transaction = session.beginTransaction();
+                try {
+                    rows = writeRows(session, format, out, progress);
+                } finally {
+                    transaction.rollback();
+                }
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            ExportResult result = new ExportResult(file, rows, Files.size(file), System.nanoTime() - start);
+            logger.info("Export finished: {}", result);
+            return result;
+
+        } catch (IOException e) {
+            deletePartial(partial);
+            throw new UserException("Export to " + file + " failed: " + e.getMessage(), e);
+        } catch (UserException e) {
+            deletePartial(partial);
+            throw e;
+        } catch (Exception e) {
+            deletePartial(partial);
+            throw new UserException("Export failed: " + e.getMessage(), e);
+        }
+    }
+
+    private long writeRows(Session session, ExportFormat format, ChannelWriter out,
+                           LongConsumer progress) throws IOException {
+        StringBuilder chunk = new StringBuilder(FLUSH_CHARS + 1024);
+        if (format == ExportFormat.CSV) {
+            chunk.append("id,name,email,age,created_at\n");
+        }
+        long count = 0;
+
+        try (ScrollableResults rows = session.createQuery(EXPORT_QUERY, Object[].class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheable(false)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                if (format == ExportFormat.CSV) {
+                    appendCsv(chunk, row);
+                } else {
+                    appendJson(chunk, row);
+                }
+                if (chunk.length() >= FLUSH_CHARS) {
+                    out.write(chunk);
+                    chunk.setLength(0);
+                }
+                if (++count % fetchSize == 0) {
+                    session.clear();
+                    if (progress != null) {
+                        progress.accept(count);
+                    }
+                }
+            }
+        }
+        out.write(chunk);
+        if (progress != null) {
+            progress.accept(count);
+        }
+        return count;
+    }
+
+    private static void appendCsv(StringBuilder out, Object[] row) {
+        out.append(row[0]).append(',');
+        CsvCodec.appendField(out, (String) row[1]).append(',');
+        CsvCodec.appendField(out, (String) row[2]).append(',');
+        out.append(row[3]).append(',').append(row[4]).append('\n');
+    }
+
+    private static void appendJson(StringBuilder out, Object[] row) {
+        out.append("{\"id\":").append(row[0]).append(",\"name\":");
+        Json.appendString(out, (String) row[1]).append(",\"email\":");
+        Json.appendString(out, (String) row[2]).append(",\"age\":").append(row[3]).append(",\"createdAt\":");
+        Json.appendString(out, row[4] != null ? row[4].toString() : null).append("}\n");
+    }
+
+    private static WritableByteChannel openChannel(Path file, boolean gzip) throws IOException {
+        if (gzip) {
+            return Channels.newChannel(new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+        }
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    private static void deletePartial(Path partial) {
+        try {
+            Files.deleteIfExists(partial);
+        } catch (IOException e) {
+            logger.warn("Failed to delete partial export file {}", partial, e);
+        }
+    }
+
+    // Кодирует текст в UTF-8 в один переиспользуемый буфер и сбрасывает его в канал
+    private static final class ChannelWriter implements AutoCloseable {
+
+        private final WritableByteChannel channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        ChannelWriter(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        // Текст передаётся целыми строками, суррогатные пары не разрываются
+        void write(CharSequence text) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, false);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                if (!result.isOverflow()) {
+                    return;
+                }
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                encoder.encode(CharBuffer.allocate(0), buffer, true);
+                encoder.flush(buffer);
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.dao;
+
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.example.model.UserSummary;
+import org.example.util.HibernateUtil;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Асинхронная обёртка над UserDao: каждый вызов выполняется в отдельном
+// виртуальном потоке. Одновременно в БД идёт не больше maxConcurrency вызовов
+// (по умолчанию - размер пула соединений), остальные ждут на семафоре,
+// а не в очереди Hikari с её connectionTimeout
+public class AsyncUserDao implements AutoCloseable {
+
+    private final UserDao delegate;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    public AsyncUserDao(UserDao delegate) {
+        this(delegate, Executors.newVirtualThreadPerTaskExecutor(),
+                HibernateUtil.getPoolStats().getMaxPoolSize());
+    }
+
+    public AsyncUserDao(UserDao delegate, ExecutorService executor, int maxConcurrency) {
+        if (delegate == null || executor == null) {
+            throw new IllegalArgumentException("Delegate and executor are required");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        this.delegate = delegate;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    public CompletableFuture<User> save(User user) {
+        return submit(() -> delegate.save(user));
+    }
+
+    public CompletableFuture<BatchSaveResult> saveAll(Collection<User> users) {
+        return submit(() -> delegate.saveAll(users));
+    }
+
+    public CompletableFuture<Optional<User>> findById(Long id) {
+        return submit(() -> delegate.findById(id));
+    }
+
+    public CompletableFuture<List<User>> findAll() {
+        return submit(delegate::findAll);
+    }
+
+    public CompletableFuture<Page<User>> findPage(Long afterId, int limit) {
+        return submit(() -> delegate.findPage(afterId, limit));
+    }
+
+    public CompletableFuture<List<UserSummary>> findAllSummaries() {
+        return submit(delegate::findAllSummaries);
+    }
+
+    public CompletableFuture<Page<UserSummary>> findSummaryPage(Long afterId, int limit) {
+        return submit(() -> delegate.findSummaryPage(afterId, limit));
+    }
+
+    public CompletableFuture<User> update(User user) {
+        return submit(() -> delegate.update(user));
+    }
+
+    public CompletableFuture<User> patch(Long id, UserPatch patch) {
+        return submit(() -> delegate.patch(id, patch));
+    }
+
+    public CompletableFuture<Void> delete(Long id) {
+        return submit(() -> {
+            delegate.delete(id);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Long>> deleteAll(Collection<Long> ids) {
+        return submit(() -> delegate.deleteAll(ids));
+    }
+
+    public CompletableFuture<Optional<User>> findByEmail(String email) {
+        return submit(() -> delegate.findByEmail(email));
+    }
+
+    public CompletableFuture<List<User>> findByName(String name) {
+        return submit(() -> delegate.findByName(name));
+    }
+
+    public CompletableFuture<List<UserSummary>> findSummariesByName(String name) {
+        return submit(() -> delegate.findSummariesByName(name));
+    }
+
+    // Вызовы, ожидающие свободного слота
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    // Новые вызовы не принимаются, уже отправленные дорабатывают
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UserException("Interrupted while waiting for a database slot", e);
+            }
+            try {
+                return operation.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+}
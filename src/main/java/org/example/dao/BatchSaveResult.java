@@ -0,0 +1,84 @@
+package org.example.dao;
+
+import org.example.exception.UserException;
+import org.example.model.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class BatchSaveResult {
+
+    private final List<User> saved = new ArrayList<>();
+    private final List<Failure> failures = new ArrayList<>();
+
+    void addSaved(User user) {
+        saved.add(user);
+    }
+
+    void addFailure(int index, int chunk, User user, UserException error) {
+        failures.add(new Failure(index, chunk, user, error));
+    }
+
+    public List<User> getSaved() {
+        return Collections.unmodifiableList(saved);
+    }
+
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchSaveResult{" +
+                "saved=" + saved.size() +
+                ", failed=" + failures.size() +
+                '}';
+    }
+
+    // Строка, которую не удалось сохранить: позиция во входной коллекции и номер чанка
+    public static class Failure {
+
+        private final int index;
+        private final int chunk;
+        private final User user;
+        private final UserException error;
+
+        Failure(int index, int chunk, User user, UserException error) {
+            this.index = index;
+            this.chunk = chunk;
+            this.user = user;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getChunk() {
+            return chunk;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public UserException getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "Failure{" +
+                    "index=" + index +
+                    ", chunk=" + chunk +
+                    ", email='" + (user != null ? user.getEmail() : null) + '\'' +
+                    ", error='" + error.getMessage() + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package org.example.dao;
+
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Групповой коммит для save: одновременные вызовы ставятся в очередь, а один поток-писатель
+// сохраняет их через saveAll - одна транзакция и один сброс WAL на пачку вместо одного на
+// строку. Пачка уходит, когда набралось maxBatchSize строк или первая из них ждёт maxLatency.
+// Пока писатель коммитит, следующая пачка копится, так что под нагрузкой пачки полнее.
+// Каждый вызов получает свой результат или свою ошибку: saveAll повторяет упавший чанк
+// построчно. Остальные методы передаются delegate без изменений
+public class CoalescingUserDao extends ForwardingUserDao implements CoalescingUserDaoMXBean, AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(CoalescingUserDao.class);
+    private static final int FILL_BUCKETS = 10;
+
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder fullBatches = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLongArray fillHistogram = new AtomicLongArray(FILL_BUCKETS);
+
+    public CoalescingUserDao(UserDao delegate, int maxBatchSize, Duration maxLatency) {
+        super(delegate);
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive");
+        }
+        if (maxLatency == null || maxLatency.isNegative()) {
+            throw new IllegalArgumentException("Max latency must not be negative");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        this.writer = new Thread(this::drain, "user-save-coalescer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public User save(User user) {
+        try {
+            return submit(user).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new UserException("Failed to save user: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Невалидный пользователь отклоняется сразу и не занимает место в пачке
+    public CompletableFuture<User> submit(User user) {
+        UserValidator.validateUser(user);
+        if (!running) {
+            throw new UserException("Save coalescer is closed");
+        }
+        Pending pending = new Pending(user);
+        queue.add(pending);
+        // close() мог завершить писателя между проверкой и add - тогда вызов не ждёт вечно
+        if (!running && queue.remove(pending)) {
+            pending.future.completeExceptionally(new UserException("Save coalescer is closed"));
+        }
+        return pending.future;
+    }
+
+    // Дожидается сохранения уже поставленных в очередь пользователей
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new UserException("Save coalescer is closed"));
+        }
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Срок отсчитывается от первого вызова: если писатель был занят, он уже истёк
+                long deadline = first.enqueuedNanos + maxLatencyNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.forEach(pending -> pending.future.completeExceptionally(
+                    new UserException("Save coalescer was interrupted")));
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        long started = System.nanoTime();
+        List<User> users = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            users.add(pending.user);
+            waitNanos.add(started - pending.enqueuedNanos);
+        }
+        record(batch.size());
+
+        BatchSaveResult result;
+        try {
+            result = delegate.saveAll(users);
+        } catch (RuntimeException e) {
+            logger.error("Coalesced save of {} users failed: {}", batch.size(), e.getMessage(), e);
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+
+        UserException[] errors = new UserException[batch.size()];
+        for (BatchSaveResult.Failure failure : result.getFailures()) {
+            errors[failure.getIndex()] = failure.getError();
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            if (errors[i] != null) {
+                pending.future.completeExceptionally(errors[i]);
+            } else {
+                pending.future.complete(pending.user);
+            }
+        }
+    }
+
+    private void record(int size) {
+        batches.increment();
+        rows.add(size);
+        if (size >= maxBatchSize) {
+            fullBatches.increment();
+        }
+        fillHistogram.incrementAndGet(Math.min(FILL_BUCKETS - 1, (size * FILL_BUCKETS - 1) / maxBatchSize));
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos);
+    }
+
+    @Override
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    @Override
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    @Override
+    public long getRowCount() {
+        return rows.sum();
+    }
+
+    @Override
+    public long getFullBatchCount() {
+        return fullBatches.sum();
+    }
+
+    @Override
+    public double getAverageBatchSize() {
+        long count = batches.sum();
+        return count == 0 ? 0 : (double) rows.sum() / count;
+    }
+
+    @Override
+    public double getAverageFillRatio() {
+        return getAverageBatchSize() / maxBatchSize;
+    }
+
+    @Override
+    public long[] getFillRatioHistogram() {
+        long[] histogram = new long[FILL_BUCKETS];
+        for (int i = 0; i < FILL_BUCKETS; i++) {
+            histogram[i] = fillHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    @Override
+    public long getAverageWaitMicros() {
+        long count = rows.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos.sum() / count);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SaveCoalescer{batches=%d, rows=%d, avgFill=%.0f%%, full=%d, avgWait=%dus}",
+                getBatchCount(), getRowCount(), getAverageFillRatio() * 100, getFullBatchCount(),
+                getAverageWaitMicros());
+    }
+
+    private static final class Pending {
+
+        private final User user;
+        private final long enqueuedNanos = System.nanoTime();
+        private final CompletableFuture<User> future = new CompletableFuture<>();
+
+        private Pending(User user) {
+            this.user = user;
+        }
+    }
+}
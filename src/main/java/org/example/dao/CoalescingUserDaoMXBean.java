@@ -0,0 +1,29 @@
+package org.example.dao;
+
+// Статистика группового коммита save в JMX: org.example:type=UserDao,name=SaveCoalescer.
+// Заполненность пачки - число строк, делённое на maxBatchSize
+public interface CoalescingUserDaoMXBean {
+
+    int getMaxBatchSize();
+
+    long getMaxLatencyMillis();
+
+    int getPendingCount();
+
+    long getBatchCount();
+
+    long getRowCount();
+
+    // Пачки, закрытые по размеру, а не по maxLatency
+    long getFullBatchCount();
+
+    double getAverageBatchSize();
+
+    double getAverageFillRatio();
+
+    // Число пачек по заполненности: [0] - до 10%, ..., [9] - от 90% до 100%
+    long[] getFillRatioHistogram();
+
+    // Среднее время от вызова save до начала коммита его пачки
+    long getAverageWaitMicros();
+}
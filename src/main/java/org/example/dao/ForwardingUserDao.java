@@ -0,0 +1,102 @@
+package org.example.dao;
+
+import org.example.model.User;
+import org.example.model.UserSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// База для декораторов UserDao: все вызовы передаются delegate,
+// наследник переопределяет только нужные методы
+public abstract class ForwardingUserDao implements UserDao {
+
+    protected final UserDao delegate;
+
+    protected ForwardingUserDao(UserDao delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate is required");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public User save(User user) {
+        return delegate.save(user);
+    }
+
+    @Override
+    public BatchSaveResult saveAll(Collection<User> users) {
+        return delegate.saveAll(users);
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Page<User> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        return delegate.findAllSummaries();
+    }
+
+    @Override
+    public Page<UserSummary> findSummaryPage(Long afterId, int limit) {
+        return delegate.findSummaryPage(afterId, limit);
+    }
+
+    @Override
+    public User update(User user) {
+        return delegate.update(user);
+    }
+
+    @Override
+    public User patch(Long id, UserPatch patch) {
+        return delegate.patch(id, patch);
+    }
+
+    @Override
+    public UpsertResult upsertByEmail(User user) {
+        return delegate.upsertByEmail(user);
+    }
+
+    @Override
+    public UpsertResult insertIfAbsent(User user) {
+        return delegate.insertIfAbsent(user);
+    }
+
+    @Override
+    public void delete(Long id) {
+        delegate.delete(id);
+    }
+
+    @Override
+    public List<Long> deleteAll(Collection<Long> ids) {
+        return delegate.deleteAll(ids);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    @Override
+    public List<User> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public List<UserSummary> findSummariesByName(String name) {
+        return delegate.findSummariesByName(name);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+// Страница keyset-пагинации: nextCursor передаётся как afterId в следующий запрос
+public class Page<T> {
+
+    private final List<T> items;
+    private final Long nextCursor;
+
+    public Page(List<T> items, Long nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "items=" + items.size() +
+                ", nextCursor=" + nextCursor +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.dao;
+
+import java.util.concurrent.TimeUnit;
+
+// Итог перераспределения: сколько строк просмотрено, перенесено и не перенесено
+public class RebalanceResult {
+
+    private final int shards;
+    private final long scanned;
+    private final long moved;
+    private final long failed;
+    private final long elapsedNanos;
+
+    public RebalanceResult(int shards, long scanned, long moved, long failed, long elapsedNanos) {
+        this.shards = shards;
+        this.scanned = scanned;
+        this.moved = moved;
+        this.failed = failed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public long getMoved() {
+        return moved;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "RebalanceResult{" +
+                "shards=" + shards +
+                ", scanned=" + scanned +
+                ", moved=" + moved +
+                ", failed=" + failed +
+                ", elapsedMillis=" + getElapsedMillis() +
+                '}';
+    }
+}
@@ -0,0 +1,279 @@
+package org.example.dao;
+
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.example.model.UserSummary;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Чтение с реплик, запись на primary (delegate). Реплики выбираются по кругу; реплика,
+// на которой запрос упал, пропускается retryAfter, а чтение повторяется на следующей
+// и в конце на primary.
+// Read-your-writes: после записи вызывающий readYourWritesWindow читает с primary,
+// пока реплика не догонит. Вызывающий задаётся через asCaller (пользователь, сессия,
+// клиент API; HTTP-сервер делает это для каждого запроса), без него ключом служит
+// текущий поток - этого достаточно только для консоли и долгоживущих потоков
+public class ReplicaRoutingUserDao extends ForwardingUserDao {
+
+    private static final Logger logger = LogManager.getLogger(ReplicaRoutingUserDao.class);
+
+    private static final ThreadLocal<Object> CALLER = new ThreadLocal<>();
+    // Просроченные отметки записи удаляются, когда их накопилось больше
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final List<Replica> replicas;
+    private final long windowNanos;
+    private final long retryAfterNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    // Вызывающий -> до какого момента (System.nanoTime) он читает с primary
+    private final Map<Object, Long> recentWriters = new ConcurrentHashMap<>();
+
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+
+    public ReplicaRoutingUserDao(UserDao primary, List<UserDao> replicas,
+                                 Duration readYourWritesWindow, Duration retryAfter) {
+        super(primary);
+        if (readYourWritesWindow.isNegative() || retryAfter.isNegative()) {
+            throw new IllegalArgumentException("Durations cannot be negative");
+        }
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.windowNanos = readYourWritesWindow.toNanos();
+        this.retryAfterNanos = retryAfter.toNanos();
+    }
+
+    // Выполняет action от имени caller; вложенные вызовы восстанавливают внешнего вызывающего
+    public static <T> T asCaller(Object caller, Supplier<T> action) {
+        Object previous = CALLER.get();
+        CALLER.set(caller);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CALLER.remove();
+            } else {
+                CALLER.set(previous);
+            }
+        }
+    }
+
+    // Запись
+
+    @Override
+    public User save(User user) {
+        try {
+            return delegate.save(user);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public BatchSaveResult saveAll(Collection<User> users) {
+        try {
+            return delegate.saveAll(users);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public User update(User user) {
+        try {
+            return delegate.update(user);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public User patch(Long id, UserPatch patch) {
+        try {
+            return delegate.patch(id, patch);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public UpsertResult upsertByEmail(User user) {
+        try {
+            return delegate.upsertByEmail(user);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public UpsertResult insertIfAbsent(User user) {
+        try {
+            return delegate.insertIfAbsent(user);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        try {
+            delegate.delete(id);
+        } finally {
+            markWrite();
+        }
+    }
+
+    @Override
+    public List<Long> deleteAll(Collection<Long> ids) {
+        try {
+            return delegate.deleteAll(ids);
+        } finally {
+            markWrite();
+        }
+    }
+
+    // Чтение
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return read(dao -> dao.findById(id));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return read(UserDao::findAll);
+    }
+
+    @Override
+    public Page<User> findPage(Long afterId, int limit) {
+        return read(dao -> dao.findPage(afterId, limit));
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        return read(UserDao::findAllSummaries);
+    }
+
+    @Override
+    public Page<UserSummary> findSummaryPage(Long afterId, int limit) {
+        return read(dao -> dao.findSummaryPage(afterId, limit));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return read(dao -> dao.findByEmail(email));
+    }
+
+    @Override
+    public List<User> findByName(String name) {
+        return read(dao -> dao.findByName(name));
+    }
+
+    @Override
+    public List<UserSummary> findSummariesByName(String name) {
+        return read(dao -> dao.findSummariesByName(name));
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long getFailovers() {
+        return failovers.sum();
+    }
+
+    private <T> T read(Function<UserDao, T> query) {
+        if (!replicas.isEmpty() && !insideWriteWindow()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            long now = System.nanoTime();
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.isAvailable(now)) {
+                    continue;
+                }
+                try {
+                    T result = query.apply(replica.dao);
+                    replicaReads.increment();
+                    return result;
+                } catch (UserException.ValidationException e) {
+                    // Ошибка в аргументах, а не в узле: primary ответит так же
+                    throw e;
+                } catch (RuntimeException e) {
+                    replica.markFailed(System.nanoTime() + retryAfterNanos);
+                    failovers.increment();
+                    logger.warn("Replica read failed, replica skipped for {} ms: {}",
+                            Duration.ofNanos(retryAfterNanos).toMillis(), e.getMessage());
+                }
+            }
+        }
+        primaryReads.increment();
+        return query.apply(delegate);
+    }
+
+    private boolean insideWriteWindow() {
+        if (windowNanos == 0) {
+            return false;
+        }
+        Object caller = caller();
+        Long until = recentWriters.get(caller);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        recentWriters.remove(caller, until);
+        return false;
+    }
+
+    private void markWrite() {
+        if (windowNanos == 0 || replicas.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        recentWriters.put(caller(), now + windowNanos);
+        if (recentWriters.size() > PURGE_THRESHOLD) {
+            recentWriters.values().removeIf(until -> until - now <= 0);
+        }
+    }
+
+    private static Object caller() {
+        Object caller = CALLER.get();
+        return caller != null ? caller : Thread.currentThread().threadId();
+    }
+
+    private static final class Replica {
+
+        private final UserDao dao;
+        // До какого момента (System.nanoTime) реплика пропускается, 0 - доступна
+        private volatile long skipUntil;
+
+        Replica(UserDao dao) {
+            this.dao = dao;
+        }
+
+        boolean isAvailable(long now) {
+            long until = skipUntil;
+            return until == 0 || until - now <= 0;
+        }
+
+        void markFailed(long until) {
+            skipUntil = until;
+        }
+    }
+}
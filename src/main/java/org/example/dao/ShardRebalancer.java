@@ -0,0 +1,88 @@
+package org.example.dao;
+
+import org.example.model.User;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Перенос пользователей после добавления шарда: каждый шард читается страницами по id,
+// строки, email которых по новому кольцу принадлежит другому шарду, вставляются туда
+// с тем же id и created_at и удаляются с исходного шарда. При консистентном хешировании
+// переезжает примерно 1/N строк. Запускается при остановленной записи
+public class ShardRebalancer {
+
+    private static final Logger logger = LogManager.getLogger(ShardRebalancer.class);
+    private static final int PAGE_SIZE = 1000;
+
+    private final List<UserDao> shards;
+    private final ShardRing ring;
+
+    public ShardRebalancer(List<UserDao> shards) {
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("Shards are required");
+        }
+        this.shards = List.copyOf(shards);
+        this.ring = new ShardRing(shards.size());
+    }
+
+    // progress получает строку состояния после каждой страницы, может быть null
+    public RebalanceResult rebalance(Consumer<String> progress) {
+        long started = System.nanoTime();
+        long scanned = 0;
+        long moved = 0;
+        long failed = 0;
+
+        for (int source = 0; source < shards.size(); source++) {
+            UserDao from = shards.get(source);
+            Long after = null;
+            do {
+                Page<User> page = from.findPage(after, PAGE_SIZE);
+                after = page.getNextCursor();
+                scanned += page.getItems().size();
+
+                List<List<User>> outgoing = new ArrayList<>(shards.size());
+                for (int i = 0; i < shards.size(); i++) {
+                    outgoing.add(new ArrayList<>());
+                }
+                for (User user : page.getItems()) {
+                    int target = ring.shardOfEmail(user.getEmail());
+                    if (target != source) {
+                        // На шарде назначения строка вставляется с прежним id
+                        user.assignId(user.getId());
+                        outgoing.get(target).add(user);
+                    }
+                }
+
+                for (int target = 0; target < shards.size(); target++) {
+                    if (outgoing.get(target).isEmpty()) {
+                        continue;
+                    }
+                    // Строка удаляется с исходного шарда только после успешной вставки
+                    BatchSaveResult result = shards.get(target).saveAll(outgoing.get(target));
+                    List<Long> copied = new ArrayList<>(result.getSaved().size());
+                    result.getSaved().forEach(user -> copied.add(user.getId()));
+                    if (!copied.isEmpty()) {
+                        from.deleteAll(copied);
+                    }
+                    moved += copied.size();
+                    failed += result.getFailures().size();
+                    for (BatchSaveResult.Failure failure : result.getFailures()) {
+                        logger.warn("User {} was not moved from shard {} to shard {}: {}",
+                                failure.getUser().getId(), source, target, failure.getError().getMessage());
+                    }
+                }
+                if (progress != null) {
+                    progress.accept(String.format("shard %d: %,d scanned, %,d moved", source, scanned, moved));
+                }
+            } while (after != null);
+        }
+
+        RebalanceResult result = new RebalanceResult(shards.size(), scanned, moved, failed,
+                System.nanoTime() - started);
+        logger.info("Rebalance finished: {}", result);
+        return result;
+    }
+}
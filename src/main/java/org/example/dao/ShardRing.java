@@ -0,0 +1,80 @@
+package org.example.dao;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Размещение пользователей по шардам. Email хешируется в один из SLOTS слотов, слоты
+// распределяются по шардам консистентным хешированием (кольцо с виртуальными узлами):
+// при добавлении шарда к нему переезжает примерно 1/N слотов, остальные остаются на месте.
+// Номер слота записан в младших битах id (sequence * SLOTS + slot), поэтому findById
+// определяет шард без обращения к email
+public final class ShardRing {
+
+    public static final int SLOTS = 1024;
+    private static final int VIRTUAL_NODES = 128;
+
+    private final int shardCount;
+    private final int[] slotToShard = new int[SLOTS];
+
+    public ShardRing(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        this.shardCount = shardCount;
+
+        // Позиции виртуальных узлов зависят только от номера шарда - новый шард не двигает старые
+        TreeMap<Long, Integer> ring = new TreeMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < VIRTUAL_NODES; node++) {
+                ring.put(hash("shard-" + shard + "#" + node), shard);
+            }
+        }
+        for (int slot = 0; slot < SLOTS; slot++) {
+            Map.Entry<Long, Integer> owner = ring.ceilingEntry(hash("slot-" + slot));
+            slotToShard[slot] = (owner != null ? owner : ring.firstEntry()).getValue();
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public static int slotOf(String email) {
+        return (int) (hash(email) & (SLOTS - 1));
+    }
+
+    public static int slotOfId(long id) {
+        return (int) Math.floorMod(id, (long) SLOTS);
+    }
+
+    public static long composeId(long sequence, int slot) {
+        return sequence * SLOTS + slot;
+    }
+
+    public int shardOfSlot(int slot) {
+        return slotToShard[slot];
+    }
+
+    public int shardOfEmail(String email) {
+        return slotToShard[slotOf(email)];
+    }
+
+    public int shardOfId(long id) {
+        return slotToShard[slotOfId(id)];
+    }
+
+    // FNV-1a по символам и финальное перемешивание MurmurHash3: стабильно между запусками и JVM
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,488 @@
+package org.example.dao;
+
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.example.model.UserSummary;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+// UserDao поверх нескольких шардов (по UserDaoImpl на SessionFactory).
+// Пользователь живёт на шарде своего email (ShardRing); id выдаёт общая последовательность,
+// поэтому id растут в порядке создания на всех шардах, а в младших битах id - слот email
+// на момент создания, по нему findById идёт сразу на нужный шард.
+// При смене email на адрес другого шарда строка переносится туда с тем же id; такие строки
+// (и строки, созданные до шардирования) findById находит опросом остальных шардов.
+// Запросы по всем шардам выполняются параллельно, результаты сливаются в том же порядке,
+// что и у одной БД: по id, поиск по имени - по имени
+public class ShardedUserDao implements UserDao, AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(ShardedUserDao.class);
+
+    private final List<UserDao> shards;
+    private final ShardRing ring;
+    private final LongSupplier sequence;
+    private final UnaryOperator<List<String>> collation;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // collation получает различные имена и возвращает их в порядке order by name базы
+    public ShardedUserDao(List<UserDao> shards, LongSupplier sequence, UnaryOperator<List<String>> collation) {
+        if (shards == null || shards.isEmpty() || sequence == null || collation == null) {
+            throw new IllegalArgumentException("Shards, id sequence and name collation are required");
+        }
+        this.shards = List.copyOf(shards);
+        this.ring = new ShardRing(shards.size());
+        this.sequence = sequence;
+        this.collation = collation;
+    }
+
+    // Значения users_seq из SessionFactory шарда 0 через генератор сущности (pooled, 50 id за nextval)
+    public static LongSupplier sequenceOf(SessionFactory factory) {
+        IdentifierGenerator generator = ((SessionFactoryImplementor) factory).getMetamodel()
+                .entityPersister(User.class).getIdentifierGenerator();
+        return () -> {
+            try (Session session = factory.openSession()) {
+                return ((Number) generator.generate((SharedSessionContractImplementor) session, new User())).longValue();
+            } catch (Exception e) {
+                throw new UserException("Failed to allocate user id: " + e.getMessage(), e);
+            }
+        };
+    }
+
+    // Порядок имён по collation базы шарда 0: Java Collator не повторяет правила libc/ICU
+    // (пробелы, знаки препинания), поэтому сортирует сама база, как order by name в UserDaoImpl
+    public static UnaryOperator<List<String>> collationOf(SessionFactory factory) {
+        return names -> {
+            try (Session session = factory.openSession()) {
+                return session.doReturningWork(connection -> {
+                    List<String> sorted = new ArrayList<>(names.size());
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "SELECT n FROM unnest(?) AS t(n) ORDER BY n")) {
+                        statement.setArray(1, connection.createArrayOf("text", names.toArray()));
+                        try (ResultSet rs = statement.executeQuery()) {
+                            while (rs.next()) {
+                                sorted.add(rs.getString(1));
+                            }
+                        }
+                    }
+                    return sorted;
+                });
+            } catch (Exception e) {
+                throw new UserException("Failed to sort user names: " + e.getMessage(), e);
+            }
+        };
+    }
+
+    public ShardRing getRing() {
+        return ring;
+    }
+
+    @Override
+    public User save(User user) {
+        UserValidator.validateUser(user);
+        int slot = ShardRing.slotOf(user.getEmail());
+        user.assignId(ShardRing.composeId(sequence.getAsLong(), slot));
+        try {
+            return shards.get(ring.shardOfSlot(slot)).save(user);
+        } catch (RuntimeException e) {
+            user.setId(null);
+            throw e;
+        }
+    }
+
+    // Строки раскладываются по шардам и сохраняются параллельно; в результате сохранённые
+    // идут в порядке входной коллекции, у ошибок - позиция во входной коллекции
+    @Override
+    public BatchSaveResult saveAll(Collection<User> users) {
+        if (users == null) {
+            throw new UserException.ValidationException("Users cannot be null");
+        }
+
+        BatchSaveResult result = new BatchSaveResult();
+        List<List<User>> groups = new ArrayList<>(shards.size());
+        List<List<Integer>> positions = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            groups.add(new ArrayList<>());
+            positions.add(new ArrayList<>());
+        }
+        Map<User, Integer> inputIndex = new IdentityHashMap<>();
+        int index = 0;
+        for (User user : users) {
+            try {
+                UserValidator.validateUser(user);
+                int slot = ShardRing.slotOf(user.getEmail());
+                user.assignId(ShardRing.composeId(sequence.getAsLong(), slot));
+                int shard = ring.shardOfSlot(slot);
+                groups.get(shard).add(user);
+                positions.get(shard).add(index);
+                inputIndex.put(user, index);
+            } catch (UserException.ValidationException e) {
+                result.addFailure(index, 0, user, e);
+            }
+            index++;
+        }
+
+        List<Integer> active = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            if (!groups.get(i).isEmpty()) {
+                active.add(i);
+            }
+        }
+        List<BatchSaveResult> shardResults = scatter(active, shard -> shards.get(shard).saveAll(groups.get(shard)));
+
+        List<User> saved = new ArrayList<>();
+        for (int i = 0; i < active.size(); i++) {
+            BatchSaveResult shardResult = shardResults.get(i);
+            saved.addAll(shardResult.getSaved());
+            for (BatchSaveResult.Failure failure : shardResult.getFailures()) {
+                failure.getUser().setId(null);
+                result.addFailure(positions.get(active.get(i)).get(failure.getIndex()),
+                        failure.getChunk(), failure.getUser(), failure.getError());
+            }
+        }
+        saved.sort(Comparator.comparing(inputIndex::get));
+        saved.forEach(result::addSaved);
+        return result;
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        validateId(id);
+        int home = ring.shardOfId(id);
+        Optional<User> user = shards.get(home).findById(id);
+        if (user.isPresent() || shards.size() == 1) {
+            return user;
+        }
+        return locate(id, home).map(found -> found.user);
+    }
+
+    @Override
+    public List<User> findAll() {
+        List<User> users = gather(UserDao::findAll);
+        users.sort(Comparator.comparing(User::getId));
+        return users;
+    }
+
+    @Override
+    public Page<User> findPage(Long afterId, int limit) {
+        return mergePages(scatter(all(), shard -> shards.get(shard).findPage(afterId, limit)), limit, User::getId);
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        List<UserSummary> summaries = gather(UserDao::findAllSummaries);
+        summaries.sort(Comparator.comparing(UserSummary::getId));
+        return summaries;
+    }
+
+    @Override
+    public Page<UserSummary> findSummaryPage(Long afterId, int limit) {
+        return mergePages(scatter(all(), shard -> shards.get(shard).findSummaryPage(afterId, limit)),
+                limit, UserSummary::getId);
+    }
+
+    @Override
+    public User update(User user) {
+        UserValidator.validateUser(user);
+        validateId(user.getId());
+        int target = ring.shardOfEmail(user.getEmail());
+        if (target == ring.shardOfId(user.getId())) {
+            try {
+                return shards.get(target).update(user);
+            } catch (UserException.EntityNotFoundException e) {
+                // Строка на другом шарде - ищем её ниже
+            }
+        }
+
+        Located current = locate(user.getId(), -1)
+                .orElseThrow(() -> new UserException.EntityNotFoundException("User not found with ID: " + user.getId()));
+        if (current.shard == target) {
+            return shards.get(target).update(user);
+        }
+        User moved = copy(user);
+        moved.setCreatedAt(current.user.getCreatedAt());
+        return move(moved, current.shard, target);
+    }
+
+    @Override
+    public User patch(Long id, UserPatch patch) {
+        validateId(id);
+        int home = ring.shardOfId(id);
+        if (patch == null || patch.isEmpty()) {
+            return shards.get(home).patch(id, patch);
+        }
+        if (patch.getEmail() == null || ring.shardOfEmail(patch.getEmail()) == home) {
+            try {
+                return shards.get(home).patch(id, patch);
+            } catch (UserException.EntityNotFoundException e) {
+                // Строка на другом шарде - ищем её ниже
+            }
+        }
+
+        Located current = locate(id, -1)
+                .orElseThrow(() -> new UserException.EntityNotFoundException("User not found with ID: " + id));
+        int target = patch.getEmail() != null ? ring.shardOfEmail(patch.getEmail()) : current.shard;
+        if (current.shard == target) {
+            return shards.get(target).patch(id, patch);
+        }
+        User moved = copy(current.user);
+        if (patch.getName() != null) {
+            moved.setName(patch.getName());
+        }
+        moved.setEmail(patch.getEmail());
+        if (patch.getAge() != null) {
+            moved.setAge(patch.getAge());
+        }
+        return move(moved, current.shard, target);
+    }
+
+    // Email уникален в пределах своего шарда, поэтому ON CONFLICT на нём достаточно.
+    // id для возможной вставки кодирует слот email, как в save
+    @Override
+    public UpsertResult upsertByEmail(User user) {
+        UserValidator.validateUser(user);
+        return shards.get(ring.shardOfEmail(user.getEmail())).upsertByEmail(withShardId(user));
+    }
+
+    @Override
+    public UpsertResult insertIfAbsent(User user) {
+        UserValidator.validateUser(user);
+        return shards.get(ring.shardOfEmail(user.getEmail())).insertIfAbsent(withShardId(user));
+    }
+
+    @Override
+    public void delete(Long id) {
+        validateId(id);
+        int home = ring.shardOfId(id);
+        try {
+            shards.get(home).delete(id);
+            return;
+        } catch (UserException.EntityNotFoundException e) {
+            if (shards.size() == 1) {
+                throw e;
+            }
+        }
+        Located current = locate(id, home)
+                .orElseThrow(() -> new UserException.EntityNotFoundException("User not found with ID: " + id));
+        shards.get(current.shard).delete(id);
+    }
+
+    // id группируются по шардам из id; не найденные там ищутся на остальных шардах
+    @Override
+    public List<Long> deleteAll(Collection<Long> ids) {
+        if (ids == null) {
+            throw new UserException.ValidationException("Ids cannot be null");
+        }
+        List<List<Long>> groups = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (Long id : ids) {
+            validateId(id);
+            groups.get(ring.shardOfId(id)).add(id);
+        }
+
+        List<Long> deleted = new ArrayList<>();
+        for (List<Long> shardDeleted : scatter(all(), shard -> groups.get(shard).isEmpty()
+                ? List.<Long>of() : shards.get(shard).deleteAll(groups.get(shard)))) {
+            deleted.addAll(shardDeleted);
+        }
+        if (shards.size() > 1 && deleted.size() < ids.size()) {
+            List<Long> remaining = new ArrayList<>(ids);
+            remaining.removeAll(new HashSet<>(deleted));
+            for (List<Long> shardDeleted : scatter(all(), shard -> shards.get(shard).deleteAll(remaining))) {
+                deleted.addAll(shardDeleted);
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return shards.get(0).findByEmail(null);
+        }
+        return shards.get(ring.shardOfEmail(email)).findByEmail(email);
+    }
+
+    @Override
+    public List<User> findByName(String name) {
+        List<User> users = gather(shard -> shard.findByName(name));
+        users.sort(byName(users, User::getName, User::getId));
+        return users;
+    }
+
+    @Override
+    public List<UserSummary> findSummariesByName(String name) {
+        List<UserSummary> summaries = gather(shard -> shard.findSummariesByName(name));
+        summaries.sort(byName(summaries, UserSummary::getName, UserSummary::getId));
+        return summaries;
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    // Перенос строки на другой шард: вставка с тем же id (уникальность email проверяет
+    // шард назначения), затем удаление на исходном. Если удалить не удалось, вставка откатывается
+    private User move(User user, int from, int to) {
+        shards.get(to).save(user);
+        try {
+            shards.get(from).delete(user.getId());
+        } catch (RuntimeException e) {
+            logger.error("Failed to remove user {} from shard {} after moving to shard {}", user.getId(), from, to, e);
+            shards.get(to).delete(user.getId());
+            throw e;
+        }
+        logger.debug("User {} moved from shard {} to shard {}", user.getId(), from, to);
+        return user;
+    }
+
+    // Поиск строки по id на всех шардах, кроме уже проверенного skip
+    private Optional<Located> locate(Long id, int skip) {
+        List<Integer> others = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            if (i != skip) {
+                others.add(i);
+            }
+        }
+        List<Optional<User>> found = scatter(others, shard -> shards.get(shard).findById(id));
+        for (int i = 0; i < others.size(); i++) {
+            if (found.get(i).isPresent()) {
+                return Optional.of(new Located(others.get(i), found.get(i).get()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private <T> List<T> gather(Function<UserDao, List<T>> query) {
+        List<T> merged = new ArrayList<>();
+        for (List<T> part : scatter(all(), shard -> query.apply(shards.get(shard)))) {
+            merged.addAll(part);
+        }
+        return merged;
+    }
+
+    // Каждый шард вернул до limit строк после afterId; общая страница - первые limit из объединения
+    private static <T> Page<T> mergePages(List<Page<T>> pages, int limit, Function<T, Long> idOf) {
+        List<T> rows = new ArrayList<>();
+        boolean more = false;
+        for (Page<T> page : pages) {
+            rows.addAll(page.getItems());
+            more |= page.hasNext();
+        }
+        rows.sort(Comparator.comparing(idOf));
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            more = true;
+        }
+        Long nextCursor = more && !rows.isEmpty() ? idOf.apply(rows.get(rows.size() - 1)) : null;
+        return new Page<>(rows, nextCursor);
+    }
+
+    private List<Integer> all() {
+        List<Integer> indexes = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    // Параллельный вызов на шардах (один шард - в текущем потоке); первая ошибка пробрасывается
+    private <T> List<T> scatter(List<Integer> targets, Function<Integer, T> call) {
+        if (targets.size() == 1) {
+            return List.of(call.apply(targets.get(0)));
+        }
+        List<Future<T>> futures = new ArrayList<>(targets.size());
+        for (Integer shard : targets) {
+            futures.add(executor.submit(() -> call.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(targets.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new UserException("Shard query failed: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new UserException("Shard query interrupted", e);
+        }
+        return results;
+    }
+
+    private User withShardId(User user) {
+        User candidate = copy(user);
+        candidate.assignId(ShardRing.composeId(sequence.getAsLong(), ShardRing.slotOf(user.getEmail())));
+        return candidate;
+    }
+
+    private static User copy(User user) {
+        User copy = new User(user.getName(), user.getEmail(), user.getAge());
+        copy.assignId(user.getId());
+        copy.setCreatedAt(user.getCreatedAt());
+        return copy;
+    }
+
+    // Как order by name, id у одной БД: ранг имени из collation, при равных именах - id
+    private <T> Comparator<T> byName(List<T> rows, Function<T, String> nameOf, Function<T, Long> idOf) {
+        if (rows.size() < 2) {
+            return Comparator.comparing(idOf);
+        }
+        Map<String, Integer> rank = new HashMap<>();
+        for (T row : rows) {
+            rank.putIfAbsent(nameOf.apply(row), rank.size());
+        }
+        List<String> sorted = collation.apply(new ArrayList<>(rank.keySet()));
+        for (int i = 0; i < sorted.size(); i++) {
+            rank.put(sorted.get(i), i);
+        }
+        return Comparator.<T, Integer>comparing(row -> rank.get(nameOf.apply(row))).thenComparing(idOf);
+    }
+
+    private static void validateId(Long id) {
+        if (id == null || id <= 0) {
+            throw new UserException.ValidationException("Invalid user ID");
+        }
+    }
+
+    private static final class Located {
+
+        private final int shard;
+        private final User user;
+
+        Located(int shard, User user) {
+            this.shard = shard;
+            this.user = user;
+        }
+    }
+}
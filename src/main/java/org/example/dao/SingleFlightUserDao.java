@@ -0,0 +1,236 @@
+package org.example.dao;
+
+import org.example.exception.UserException;
+import org.example.model.User;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Single-flight для findById и findByEmail: одновременные поиски одного ключа ждут один
+// запрос в БД и получают его результат (каждый - свою копию User). Запросы в полёте лежат
+// в картах, разбитых на stripes частей со своей блокировкой, так что разные ключи почти
+// не конкурируют. Любая запись через этот DAO сдвигает поколение: поиск, начатый после
+// записи, не присоединяется к запросу, начатому до неё, и видит свою запись
+public class SingleFlightUserDao extends ForwardingUserDao implements SingleFlightUserDaoMXBean {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final InFlight<Long> byId;
+    private final InFlight<String> byEmail;
+
+    public SingleFlightUserDao(UserDao delegate, int stripes) {
+        super(delegate);
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripes must be a positive power of two");
+        }
+        this.byId = new InFlight<>(stripes);
+        this.byEmail = new InFlight<>(stripes);
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return byId.share(id, () -> delegate.findById(id));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return byEmail.share(email, () -> delegate.findByEmail(email));
+    }
+
+    @Override
+    public User save(User user) {
+        return write(() -> delegate.save(user));
+    }
+
+    @Override
+    public BatchSaveResult saveAll(Collection<User> users) {
+        return write(() -> delegate.saveAll(users));
+    }
+
+    @Override
+    public User update(User user) {
+        return write(() -> delegate.update(user));
+    }
+
+    @Override
+    public User patch(Long id, UserPatch patch) {
+        return write(() -> delegate.patch(id, patch));
+    }
+
+    @Override
+    public UpsertResult upsertByEmail(User user) {
+        return write(() -> delegate.upsertByEmail(user));
+    }
+
+    @Override
+    public UpsertResult insertIfAbsent(User user) {
+        return write(() -> delegate.insertIfAbsent(user));
+    }
+
+    @Override
+    public void delete(Long id) {
+        write(() -> {
+            delegate.delete(id);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Long> deleteAll(Collection<Long> ids) {
+        return write(() -> delegate.deleteAll(ids));
+    }
+
+    @Override
+    public int getStripes() {
+        return byId.stripes.length;
+    }
+
+    @Override
+    public long getFindByIdCalls() {
+        return byId.calls.sum();
+    }
+
+    @Override
+    public long getFindByIdDeduplicated() {
+        return byId.deduplicated.sum();
+    }
+
+    @Override
+    public long getFindByEmailCalls() {
+        return byEmail.calls.sum();
+    }
+
+    @Override
+    public long getFindByEmailDeduplicated() {
+        return byEmail.deduplicated.sum();
+    }
+
+    @Override
+    public int getInFlightCount() {
+        return byId.size() + byEmail.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SingleFlight{findById=%d/%d deduplicated, findByEmail=%d/%d deduplicated}",
+                getFindByIdDeduplicated(), getFindByIdCalls(), getFindByEmailDeduplicated(), getFindByEmailCalls());
+    }
+
+    // Поколение сдвигается и при ошибке: запись могла успеть закоммититься
+    private <T> T write(Supplier<T> call) {
+        try {
+            return call.get();
+        } finally {
+            generation.incrementAndGet();
+        }
+    }
+
+    private static Optional<User> copyOf(Optional<User> result) {
+        return result.map(user -> {
+            User copy = new User(user.getName(), user.getEmail(), user.getAge());
+            copy.setId(user.getId());
+            copy.setCreatedAt(user.getCreatedAt());
+            return copy;
+        });
+    }
+
+    private final class InFlight<K> {
+
+        private final Stripe<K>[] stripes;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder deduplicated = new LongAdder();
+
+        @SuppressWarnings("unchecked")
+        private InFlight(int count) {
+            stripes = new Stripe[count];
+            for (int i = 0; i < count; i++) {
+                stripes[i] = new Stripe<>();
+            }
+        }
+
+        private Optional<User> share(K key, Supplier<Optional<User>> call) {
+            calls.increment();
+            if (key == null) {
+                return call.get();
+            }
+            Stripe<K> stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+            Flight flight;
+            boolean leader = false;
+            synchronized (stripe) {
+                flight = stripe.flights.get(key);
+                if (flight == null || flight.generation != generation.get()) {
+                    flight = new Flight(generation.get());
+                    stripe.flights.put(key, flight);
+                    leader = true;
+                }
+            }
+
+            if (!leader) {
+                deduplicated.increment();
+                try {
+                    return copyOf(flight.result.join());
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException cause) {
+                        throw cause;
+                    }
+                    throw new UserException("Shared lookup failed: " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+
+            // Запрос убирается из карты до того, как ожидающие получат результат,
+            // поэтому к завершённому запросу никто не присоединится
+            try {
+                Optional<User> result = call.get();
+                remove(stripe, key, flight);
+                flight.result.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                remove(stripe, key, flight);
+                flight.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        private void remove(Stripe<K> stripe, K key, Flight flight) {
+            synchronized (stripe) {
+                stripe.flights.remove(key, flight);
+            }
+        }
+
+        private int size() {
+            int size = 0;
+            for (Stripe<K> stripe : stripes) {
+                synchronized (stripe) {
+                    size += stripe.flights.size();
+                }
+            }
+            return size;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    private static final class Stripe<K> {
+
+        private final Map<K, Flight> flights = new HashMap<>();
+    }
+
+    private static final class Flight {
+
+        private final long generation;
+        private final CompletableFuture<Optional<User>> result = new CompletableFuture<>();
+
+        private Flight(long generation) {
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.dao;
+
+// Объединение одновременных поиска по id и email в JMX: org.example:type=UserDao,name=SingleFlight.
+// Calls - все вызовы, Deduplicated - те, что дождались чужого запроса вместо своего
+public interface SingleFlightUserDaoMXBean {
+
+    int getStripes();
+
+    long getFindByIdCalls();
+
+    long getFindByIdDeduplicated();
+
+    long getFindByEmailCalls();
+
+    long getFindByEmailDeduplicated();
+
+    int getInFlightCount();
+}
@@ -0,0 +1,42 @@
+package org.example.dao;
+
+import org.example.model.User;
+
+// Итог upsertByEmail / insertIfAbsent. Для SKIPPED user - null: существующая строка
+// не читается, чтобы дубликат стоил столько же, сколько вставка
+public class UpsertResult {
+
+    public enum Action {
+        INSERTED,
+        UPDATED,
+        SKIPPED
+    }
+
+    private final User user;
+    private final Action action;
+
+    public UpsertResult(User user, Action action) {
+        this.user = user;
+        this.action = action;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public boolean isInserted() {
+        return action == Action.INSERTED;
+    }
+
+    @Override
+    public String toString() {
+        return "UpsertResult{" +
+                "action=" + action +
+                ", id=" + (user != null ? user.getId() : null) +
+                '}';
+    }
+}
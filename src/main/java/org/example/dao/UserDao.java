@@ -1,6 +1,8 @@
 package org.example.dao;
 
 import org.example.model.User;
+import org.example.model.UserSummary;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -8,15 +10,33 @@ public interface UserDao {
 
     User save(User user);
 
+    BatchSaveResult saveAll(Collection<User> users);
+
     Optional<User> findById(Long id);
 
     List<User> findAll();
 
+    Page<User> findPage(Long afterId, int limit);
+
+    List<UserSummary> findAllSummaries();
+
+    Page<UserSummary> findSummaryPage(Long afterId, int limit);
+
     User update(User user);
 
+    User patch(Long id, UserPatch patch);
+
+    UpsertResult upsertByEmail(User user);
+
+    UpsertResult insertIfAbsent(User user);
+
     void delete(Long id);
 
+    List<Long> deleteAll(Collection<Long> ids);
+
     Optional<User> findByEmail(String email);
 
     List<User> findByName(String name);
+
+    List<UserSummary> findSummariesByName(String name);
 }
\ No newline at end of file
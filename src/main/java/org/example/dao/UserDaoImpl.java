@@ -1,55 +1,183 @@
 package org.example.dao;
 
 import org.example.model.User;
+import org.example.model.UserSummary;
 import org.example.exception.UserException;
+import org.example.search.TrigramIndex;
 import org.example.util.HibernateUtil;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StaleStateException;
 import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
+import org.hibernate.type.LocalDateTimeType;
+import org.hibernate.type.StandardBasicTypes;
 import org.hibernate.exception.ConstraintViolationException;
 import org.hibernate.exception.SQLGrammarException;
 import org.hibernate.exception.DataException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class UserDaoImpl implements UserDao {
 
     private static final Logger logger = LogManager.getLogger(UserDaoImpl.class);
+    public static final String EMAIL_QUERY_REGION = "users-by-email";
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int INDEX_WARMUP_PAGE_SIZE = 10_000;
+    private static final int DELETE_CHUNK_SIZE = 1000;
+    private static final String SUMMARY_CLASS = UserSummary.class.getName();
+
+    private final Supplier<SessionFactory> sessionFactory;
+    // Необязательный индекс триграмм для findByName, null - поиск только через БД
+    private final TrigramIndex nameIndex;
+
+    public UserDaoImpl() {
+        this((TrigramIndex) null);
+    }
+
+    public UserDaoImpl(TrigramIndex nameIndex) {
+        this(HibernateUtil::getSessionFactory, nameIndex);
+    }
+
+    // DAO над отдельной SessionFactory, например над репликой для чтения или шардом
+    public UserDaoImpl(SessionFactory sessionFactory) {
+        this(sessionFactory, null);
+    }
+
+    public UserDaoImpl(SessionFactory sessionFactory, TrigramIndex nameIndex) {
+        this(() -> sessionFactory, nameIndex);
+    }
+
+    private UserDaoImpl(Supplier<SessionFactory> sessionFactory, TrigramIndex nameIndex) {
+        this.sessionFactory = sessionFactory;
+        this.nameIndex = nameIndex;
+    }
 
     @Override
     public User save(User user) {
-        validateUser(user);
+        UserValidator.validateUser(user);
         Transaction transaction = null;
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = sessionFactory.get().openSession()) {
             transaction = session.beginTransaction();
             session.save(user);
             transaction.commit();
+            indexName(user);
 
-            logger.info("User saved successfully: {}", user.getEmail());
+            logger.debug("User saved: id={}", user.getId());
             return user;
 
-        } catch (ConstraintViolationException e) {
-            handleConstraintViolation(transaction, "save", user.getEmail(), e);
-            throw new UserException.ConstraintViolationException(
-                    "User with email '" + user.getEmail() + "' already exists", e);
-        } catch (DataException e) {
-            handleDataException(transaction, "save", user.getEmail(), e);
-            throw new UserException.ValidationException("Invalid data format: " + e.getMessage());
         } catch (Exception e) {
-            handleGenericException(transaction, "save", user.getEmail(), e);
-            throw new UserException("Failed to save user: " + e.getMessage(), e);
+            // С sequence-генератором INSERT выполняется при flush, и Hibernate
+            // оборачивает исключение в PersistenceException - ищем причину по цепочке.
+            // Сгенерированный id сбрасываем, назначенный через assignId остаётся как был
+            if (!user.isIdAssigned()) {
+                user.setId(null);
+            }
+            throw translateSaveException(transaction, user, e);
+        }
+    }
+
+    @Override
+    public BatchSaveResult saveAll(Collection<User> users) {
+        if (users == null) {
+            throw new UserException.ValidationException("Users cannot be null");
+        }
+
+        BatchSaveResult result = new BatchSaveResult();
+        int chunkSize = getBatchSize();
+        List<User> chunk = new ArrayList<>(chunkSize);
+        List<Integer> positions = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        for (User user : users) {
+            try {
+                UserValidator.validateUser(user);
+                chunk.add(user);
+                positions.add(index);
+            } catch (UserException.ValidationException e) {
+                result.addFailure(index, index / chunkSize, user, e);
+            }
+
+            index++;
+            if (index % chunkSize == 0) {
+                saveChunk(chunk, positions, index / chunkSize - 1, result);
+                chunk.clear();
+                positions.clear();
+            }
+        }
+        saveChunk(chunk, positions, index / chunkSize, result);
+
+        logger.info("Batch save finished: {} saved, {} failed",
+                result.getSaved().size(), result.getFailures().size());
+        return result;
+    }
+
+    // Весь чанк пишется одной транзакцией и одним JDBC batch. Если чанк упал
+    // (например, дубликат email), он откатывается и повторяется построчно,
+    // чтобы одна плохая строка не теряла остальные
+    private void saveChunk(List<User> chunk, List<Integer> positions, int chunkNumber,
+                           BatchSaveResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.get().openSession()) {
+            transaction = session.beginTransaction();
+            for (User user : chunk) {
+                session.save(user);
+            }
+            session.flush();
+            transaction.commit();
+            session.clear();
+
+            chunk.forEach(result::addSaved);
+            chunk.forEach(this::indexName);
+            logger.debug("Chunk {} saved: {} users", chunkNumber, chunk.size());
+            return;
+
+        } catch (Exception e) {
+            rollbackTransaction(transaction, "saveAll");
+            logger.warn("Chunk {} failed, retrying row by row: {}", chunkNumber, e.getMessage());
+            chunk.stream().filter(user -> !user.isIdAssigned()).forEach(user -> user.setId(null));
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            User user = chunk.get(i);
+            try {
+                result.addSaved(save(user));
+            } catch (UserException e) {
+                result.addFailure(positions.get(i), chunkNumber, user, e);
+            }
         }
     }
 
+    private int getBatchSize() {
+        int batchSize = ((SessionFactoryImplementor) sessionFactory.get())
+                .getSessionFactoryOptions().getJdbcBatchSize();
+        return batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+
     @Override
     public Optional<User> findById(Long id) {
         validateId(id);
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = openReadOnlySession()) {
             User user = session.get(User.class, id);
             logger.debug("User found by id {}: {}", id, user != null);
             return Optional.ofNullable(user);
@@ -62,7 +190,7 @@ public class UserDaoImpl implements UserDao {
 
     @Override
     public List<User> findAll() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = openReadOnlySession()) {
             Query<User> query = session.createQuery("from User order by id", User.class);
             List<User> users = query.list();
             logger.debug("Found {} users", users.size());
@@ -77,38 +205,249 @@ public class UserDaoImpl implements UserDao {
         }
     }
 
+    @Override
+    public Page<User> findPage(Long afterId, int limit) {
+        validatePageRequest(afterId, limit);
+
+        try (Session session = openReadOnlySession()) {
+            // WHERE id > :after ORDER BY id LIMIT n идёт по первичному ключу,
+            // поэтому стоимость страницы не зависит от её номера (в отличие от OFFSET).
+            // Берём на одну строку больше, чтобы знать, есть ли следующая страница
+            Query<User> query = session.createQuery(
+                    "from User where id > :after order by id", User.class);
+            query.setParameter("after", afterId != null ? afterId : 0L);
+            query.setMaxResults(limit + 1);
+
+            Page<User> page = toPage(query.list(), limit, User::getId);
+            logger.debug("Found {} users after id {}", page.getItems().size(), afterId);
+            return page;
+
+        } catch (Exception e) {
+            logger.error("Failed to find users page after id: {}", afterId, e);
+            throw new UserException("Failed to retrieve users page: " + e.getMessage(), e);
+        }
+    }
+
+    // Проекции: только id, name, email через конструктор UserSummary.
+    // Результат не попадает в persistence context и second-level cache
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        try (Session session = openReadOnlySession()) {
+            List<UserSummary> summaries = session.createQuery(
+                    "select new " + SUMMARY_CLASS + "(id, name, email) from User order by id",
+                    UserSummary.class).list();
+            logger.debug("Found {} user summaries", summaries.size());
+            return summaries;
+
+        } catch (Exception e) {
+            logger.error("Failed to find all user summaries", e);
+            throw new UserException("Failed to retrieve users: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Page<UserSummary> findSummaryPage(Long afterId, int limit) {
+        validatePageRequest(afterId, limit);
+
+        try (Session session = openReadOnlySession()) {
+            Query<UserSummary> query = session.createQuery(
+                    "select new " + SUMMARY_CLASS + "(id, name, email) from User where id > :after order by id",
+                    UserSummary.class);
+            query.setParameter("after", afterId != null ? afterId : 0L);
+            query.setMaxResults(limit + 1);
+
+            Page<UserSummary> page = toPage(query.list(), limit, UserSummary::getId);
+            logger.debug("Found {} user summaries after id {}", page.getItems().size(), afterId);
+            return page;
+
+        } catch (Exception e) {
+            logger.error("Failed to find user summaries page after id: {}", afterId, e);
+            throw new UserException("Failed to retrieve users page: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public User update(User user) {
-        validateUser(user);
+        UserValidator.validateUser(user);
         validateId(user.getId());
         Transaction transaction = null;
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = sessionFactory.get().openSession()) {
             transaction = session.beginTransaction();
 
-            // Проверяем существование пользователя
-            User existingUser = session.get(User.class, user.getId());
-            if (existingUser == null) {
-                throw new UserException.EntityNotFoundException(
-                        "User not found with ID: " + user.getId());
+            // Один UPDATE ... WHERE id = ? без предварительного SELECT:
+            // если строки нет, Hibernate видит 0 обновлённых строк (StaleStateException)
+            session.update(user);
+            session.flush();
+            transaction.commit();
+            indexName(user);
+
+            logger.debug("User updated: id={}", user.getId());
+            return user;
+
+        } catch (Exception e) {
+            if (findCause(e, StaleStateException.class) != null) {
+                rollbackTransaction(transaction, "update");
+                throw new UserException.EntityNotFoundException("User not found with ID: " + user.getId());
+            }
+            ConstraintViolationException constraintViolation = findCause(e, ConstraintViolationException.class);
+            if (constraintViolation != null) {
+                handleConstraintViolation(transaction, "update", user.getEmail(), constraintViolation);
+                throw new UserException.ConstraintViolationException(
+                        "Email '" + user.getEmail() + "' already exists", constraintViolation);
             }
+            handleGenericException(transaction, "update", user.getEmail(), e);
+            throw new UserException("Failed to update user: " + e.getMessage(), e);
+        }
+    }
 
-            session.update(user);
+    @Override
+    public User patch(Long id, UserPatch patch) {
+        validateId(id);
+        validatePatch(patch);
+        Transaction transaction = null;
+
+        // В SET попадают только заданные поля; RETURNING возвращает строку целиком,
+        // так что обновление и чтение результата - один запрос
+        StringBuilder sql = new StringBuilder("UPDATE users SET ");
+        List<String> assignments = new ArrayList<>();
+        if (patch.getName() != null) {
+            assignments.add("name = :name");
+        }
+        if (patch.getEmail() != null) {
+            assignments.add("email = :email");
+        }
+        if (patch.getAge() != null) {
+            assignments.add("age = :age");
+        }
+        sql.append(String.join(", ", assignments))
+                .append(" WHERE id = :id RETURNING id, name, email, age, created_at");
+
+        try (Session session = sessionFactory.get().openSession()) {
+            transaction = session.beginTransaction();
+
+            NativeQuery<?> query = session.createNativeQuery(sql.toString());
+            query.setParameter("id", id);
+            if (patch.getName() != null) {
+                query.setParameter("name", patch.getName());
+            }
+            if (patch.getEmail() != null) {
+                query.setParameter("email", patch.getEmail());
+            }
+            if (patch.getAge() != null) {
+                query.setParameter("age", patch.getAge());
+            }
+            List<Object[]> rows = addUserScalars(query).list();
+
+            if (rows.isEmpty()) {
+                throw new UserException.EntityNotFoundException("User not found with ID: " + id);
+            }
             transaction.commit();
 
-            logger.info("User updated successfully: {}", user.getEmail());
+            User user = toUser(rows.get(0));
+            evictCachedUser(id);
+            if (patch.getEmail() != null) {
+                evictEmailLookups();
+            }
+            if (patch.getName() != null) {
+                indexName(user);
+            }
+
+            logger.debug("User patched: id={}", id);
             return user;
 
         } catch (UserException.EntityNotFoundException e) {
-            rollbackTransaction(transaction, "update");
+            rollbackTransaction(transaction, "patch");
             throw e;
-        } catch (ConstraintViolationException e) {
-            handleConstraintViolation(transaction, "update", user.getEmail(), e);
-            throw new UserException.ConstraintViolationException(
-                    "Email '" + user.getEmail() + "' already exists", e);
         } catch (Exception e) {
-            handleGenericException(transaction, "update", user.getEmail(), e);
-            throw new UserException("Failed to update user: " + e.getMessage(), e);
+            ConstraintViolationException constraintViolation = findCause(e, ConstraintViolationException.class);
+            if (constraintViolation != null) {
+                handleConstraintViolation(transaction, "patch", String.valueOf(id), constraintViolation);
+                throw new UserException.ConstraintViolationException(
+                        "Email '" + patch.getEmail() + "' already exists", constraintViolation);
+            }
+            handleGenericException(transaction, "patch", String.valueOf(id), e);
+            throw new UserException("Failed to patch user: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public UpsertResult upsertByEmail(User user) {
+        return insertOnEmailConflict(user, true);
+    }
+
+    @Override
+    public UpsertResult insertIfAbsent(User user) {
+        return insertOnEmailConflict(user, false);
+    }
+
+    // Один INSERT ... ON CONFLICT (email): дубликат - не исключение с откатом, а другая
+    // ветка того же запроса. (xmax = 0) истинно только у только что вставленной строки.
+    // id берётся из того же генератора, что и в save (заранее назначенный сохраняется);
+    // при конфликте он пропадает, как при откате обычной вставки
+    private UpsertResult insertOnEmailConflict(User user, boolean update) {
+        UserValidator.validateUser(user);
+        String operation = update ? "upsertByEmail" : "insertIfAbsent";
+        Transaction transaction = null;
+
+        String sql = "INSERT INTO users (id, name, email, age, created_at)"
+                + " VALUES (:id, :name, :email, :age, :createdAt)"
+                + (update
+                        ? " ON CONFLICT (email) DO UPDATE SET name = EXCLUDED.name, age = EXCLUDED.age"
+                        : " ON CONFLICT (email) DO NOTHING")
+                + " RETURNING id, name, email, age, created_at, (xmax = 0) AS inserted";
+
+        try (Session session = sessionFactory.get().openSession()) {
+            transaction = session.beginTransaction();
+
+            IdentifierGenerator generator = ((SessionFactoryImplementor) session.getSessionFactory())
+                    .getMetamodel().entityPersister(User.class).getIdentifierGenerator();
+            Long id = ((Number) generator.generate((SharedSessionContractImplementor) session, user)).longValue();
+
+            NativeQuery<?> query = session.createNativeQuery(sql);
+            query.setParameter("id", id);
+            query.setParameter("name", user.getName());
+            query.setParameter("email", user.getEmail());
+            query.setParameter("age", user.getAge());
+            query.setParameter("createdAt",
+                    user.getCreatedAt() != null ? user.getCreatedAt() : LocalDateTime.now(), LocalDateTimeType.INSTANCE);
+            List<Object[]> rows = addUserScalars(query).addScalar("inserted", StandardBasicTypes.BOOLEAN).list();
+            transaction.commit();
+
+            if (rows.isEmpty()) {
+                logger.debug("User not inserted, email already exists: {}", user.getEmail());
+                return new UpsertResult(null, UpsertResult.Action.SKIPPED);
+            }
+
+            Object[] row = rows.get(0);
+            User saved = toUser(row);
+            boolean inserted = (Boolean) row[5];
+            if (inserted) {
+                evictEmailLookups();
+            } else {
+                evictCachedUser(saved.getId());
+            }
+            indexName(saved);
+
+            logger.debug("User {} by email: id={}", inserted ? "inserted" : "updated", saved.getId());
+            return new UpsertResult(saved, inserted ? UpsertResult.Action.INSERTED : UpsertResult.Action.UPDATED);
+
+        } catch (Exception e) {
+            // Сюда попадают только нарушения других ограничений, например занятый id
+            ConstraintViolationException constraintViolation = findCause(e, ConstraintViolationException.class);
+            if (constraintViolation != null) {
+                handleConstraintViolation(transaction, operation, user.getEmail(), constraintViolation);
+                throw new UserException.ConstraintViolationException(
+                        "Constraint violation for user '" + user.getEmail() + "': "
+                                + constraintViolation.getConstraintName(), constraintViolation);
+            }
+            DataException dataException = findCause(e, DataException.class);
+            if (dataException != null) {
+                handleDataException(transaction, operation, user.getEmail(), dataException);
+                throw new UserException.ValidationException("Invalid data format: " + dataException.getMessage());
+            }
+            handleGenericException(transaction, operation, user.getEmail(), e);
+            throw new UserException("Failed to " + operation + ": " + e.getMessage(), e);
         }
     }
 
@@ -117,19 +456,23 @@ public class UserDaoImpl implements UserDao {
         validateId(id);
         Transaction transaction = null;
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = sessionFactory.get().openSession()) {
             transaction = session.beginTransaction();
-            User user = session.get(User.class, id);
 
-            if (user != null) {
-                session.delete(user);
-                logger.info("User deleted successfully: {}", id);
-            } else {
-                logger.warn("User not found for deletion: {}", id);
+            // Один DELETE без загрузки сущности; RETURNING показывает, была ли строка
+            List<?> deleted = session.createNativeQuery("DELETE FROM users WHERE id = :id RETURNING id")
+                    .setParameter("id", id)
+                    .list();
+
+            if (deleted.isEmpty()) {
+                logger.debug("User not found for deletion: id={}", id);
                 throw new UserException.EntityNotFoundException("User not found with ID: " + id);
             }
 
             transaction.commit();
+            forgetUser(id);
+            evictEmailLookups();
+            logger.debug("User deleted: id={}", id);
 
         } catch (UserException.EntityNotFoundException e) {
             rollbackTransaction(transaction, "delete");
@@ -140,16 +483,63 @@ public class UserDaoImpl implements UserDao {
         }
     }
 
+    @Override
+    public List<Long> deleteAll(Collection<Long> ids) {
+        if (ids == null) {
+            throw new UserException.ValidationException("User IDs cannot be null");
+        }
+        ids.forEach(this::validateId);
+
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Long> deleted = new ArrayList<>(distinctIds.size());
+
+        // Каждый чанк - отдельная транзакция: блокировки и WAL не копятся
+        // на всю операцию, а уже удалённые чанки не откатываются при сбое
+        for (int from = 0; from < distinctIds.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, distinctIds.size()));
+            deleted.addAll(deleteChunk(chunk, deleted.size()));
+        }
+
+        logger.info("Bulk delete finished: {} of {} users deleted", deleted.size(), distinctIds.size());
+        return deleted;
+    }
+
+    private List<Long> deleteChunk(List<Long> chunk, int deletedSoFar) {
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.get().openSession()) {
+            transaction = session.beginTransaction();
+
+            NativeQuery<?> query = session.createNativeQuery("DELETE FROM users WHERE id IN (:ids) RETURNING id");
+            query.setParameterList("ids", chunk);
+            query.addScalar("id", StandardBasicTypes.LONG);
+            List<Long> deleted = castList(query.list());
+
+            transaction.commit();
+            deleted.forEach(this::forgetUser);
+            evictEmailLookups();
+            logger.debug("Deleted {} of {} users in chunk", deleted.size(), chunk.size());
+            return deleted;
+
+        } catch (Exception e) {
+            handleGenericException(transaction, "deleteAll", chunk.size() + " ids", e);
+            throw new UserException("Failed to delete users (" + deletedSoFar
+                    + " already deleted): " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public Optional<User> findByEmail(String email) {
-        validateEmail(email);
+        UserValidator.validateEmail(email);
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = openReadOnlySession()) {
             Query<User> query = session.createQuery("from User where email = :email", User.class);
             query.setParameter("email", email);
+            query.setCacheable(true);
+            query.setCacheRegion(EMAIL_QUERY_REGION);
             User user = query.uniqueResult();
 
-            logger.debug("User found by email {}: {}", email, user != null);
+            logger.debug("User found by email: {}", user != null);
             return Optional.ofNullable(user);
 
         } catch (Exception e) {
@@ -160,18 +550,44 @@ public class UserDaoImpl implements UserDao {
 
     @Override
     public List<User> findByName(String name) {
+        return searchByName(name, "", User.class);
+    }
+
+    @Override
+    public List<UserSummary> findSummariesByName(String name) {
+        return searchByName(name, "select new " + SUMMARY_CLASS + "(id, name, email) ", UserSummary.class);
+    }
+
+    private <T> List<T> searchByName(String name, String select, Class<T> resultType) {
         if (name == null || name.trim().isEmpty()) {
             throw new UserException.ValidationException("Name cannot be empty");
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<User> query = session.createQuery(
-                    "from User where lower(name) like lower(:name) order by name", User.class);
+        // '%' и '_' в запросе - шаблоны LIKE, индекс их семантику не повторяет
+        boolean indexable = nameIndex != null && name.indexOf('%') < 0 && name.indexOf('_') < 0;
+        long[] candidates = indexable ? nameIndex.search(name) : null;
+        if (candidates != null && candidates.length == 0) {
+            logger.debug("Name index has no users with name containing: {}", name);
+            return new ArrayList<>();
+        }
+
+        try (Session session = openReadOnlySession()) {
+            Query<T> query;
+            if (candidates != null) {
+                // Индекс сузил поиск до списка id; условие like оставляем,
+                // чтобы результат и порядок совпадали с обычным запросом
+                query = session.createQuery(select
+                        + "from User where id in (:ids) and lower(name) like lower(:name) order by name, id", resultType);
+                query.setParameterList("ids", toList(candidates));
+            } else {
+                query = session.createQuery(select
+                        + "from User where lower(name) like lower(:name) order by name, id", resultType);
+            }
             query.setParameter("name", "%" + name.trim() + "%");
 
-            List<User> users = query.list();
-            logger.debug("Found {} users with name containing: {}", users.size(), name);
-            return users;
+            List<T> results = query.list();
+            logger.debug("Found {} users with name containing: {}", results.size(), name);
+            return results;
 
         } catch (Exception e) {
             logger.error("Failed to find users by name: {}", name, e);
@@ -179,39 +595,181 @@ public class UserDaoImpl implements UserDao {
         }
     }
 
-    // Валидационные методы
-    private void validateUser(User user) {
-        if (user == null) {
-            throw new UserException.ValidationException("User cannot be null");
+    // Начальная загрузка индекса имён: keyset-проход по (id, name) без загрузки сущностей
+    public void warmNameIndex() {
+        if (nameIndex == null) {
+            return;
         }
-        validateEmail(user.getEmail());
+        long started = System.nanoTime();
+        long after = 0;
+
+        try (Session session = openReadOnlySession()) {
+            while (true) {
+                List<Object[]> rows = session.createQuery(
+                                "select id, name from User where id > :after order by id", Object[].class)
+                        .setParameter("after", after)
+                        .setMaxResults(INDEX_WARMUP_PAGE_SIZE)
+                        .list();
+                for (Object[] row : rows) {
+                    nameIndex.putIfAbsent((Long) row[0], (String) row[1]);
+                }
+                if (rows.size() < INDEX_WARMUP_PAGE_SIZE) {
+                    break;
+                }
+                after = (Long) rows.get(rows.size() - 1)[0];
+                session.clear();
+            }
+            nameIndex.markReady();
+            logger.info("Name index warmed up in {} ms",
+                    (System.nanoTime() - started) / 1_000_000);
 
-        if (user.getName() == null || user.getName().trim().isEmpty()) {
-            throw new UserException.ValidationException("User name cannot be empty");
+        } catch (Exception e) {
+            logger.error("Failed to warm up name index, name search will use the database", e);
+        }
+    }
+
+    // Для изменений в обход DAO (импорт с обновлением): warmNameIndex не перезаписывает
+    // уже проиндексированные имена, поэтому новые имена кладутся явно
+    public void reindexNames(Collection<UserSummary> users) {
+        if (nameIndex == null) {
+            return;
+        }
+        for (UserSummary user : users) {
+            nameIndex.put(user.getId(), user.getName());
+        }
+    }
+
+    // В выборке limit + 1 строк: лишняя строка означает, что есть следующая страница
+    private static <T> Page<T> toPage(List<T> rows, int limit, Function<T, Long> idOf) {
+        Long nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = idOf.apply(rows.get(limit - 1));
+        }
+        return new Page<>(new ArrayList<>(rows), nextCursor);
+    }
+
+    private Session openReadOnlySession() {
+        return HibernateUtil.openReadOnlySession(sessionFactory.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NativeQuery<Object[]> addUserScalars(NativeQuery<?> query) {
+        return (NativeQuery<Object[]>) query
+                .addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("name", StandardBasicTypes.STRING)
+                .addScalar("email", StandardBasicTypes.STRING)
+                .addScalar("age", StandardBasicTypes.INTEGER)
+                .addScalar("created_at", LocalDateTimeType.INSTANCE);
+    }
+
+    private static User toUser(Object[] row) {
+        User user = new User((String) row[1], (String) row[2], (Integer) row[3]);
+        user.setId((Long) row[0]);
+        user.setCreatedAt((LocalDateTime) row[4]);
+        return user;
+    }
+
+    // Native DML Hibernate не отслеживает, поэтому после коммита убираем
+    // из second-level cache только затронутые записи (а не весь регион)
+    private void evictCachedUser(Long id) {
+        sessionFactory.get().getCache().evictEntityData(User.class, id);
+    }
+
+    private void evictEmailLookups() {
+        sessionFactory.get().getCache().evictQueryRegion(EMAIL_QUERY_REGION);
+    }
+
+    private void forgetUser(Long id) {
+        evictCachedUser(id);
+        if (nameIndex != null) {
+            nameIndex.remove(id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> castList(List<?> list) {
+        return (List<T>) list;
+    }
+
+    private void indexName(User user) {
+        if (nameIndex != null) {
+            nameIndex.put(user.getId(), user.getName());
         }
+    }
 
-        if (user.getAge() == null || user.getAge() <= 0 || user.getAge() > 150) {
-            throw new UserException.ValidationException("Age must be between 1 and 150");
+    private static List<Long> toList(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            list.add(id);
         }
+        return list;
     }
 
+    // Валидационные методы
     private void validateId(Long id) {
         if (id == null || id <= 0) {
             throw new UserException.ValidationException("Invalid user ID");
         }
     }
 
-    private void validateEmail(String email) {
-        if (email == null || email.trim().isEmpty()) {
-            throw new UserException.ValidationException("Email cannot be empty");
+    private void validatePatch(UserPatch patch) {
+        if (patch == null || patch.isEmpty()) {
+            throw new UserException.ValidationException("Nothing to update");
+        }
+
+        if (patch.getEmail() != null) {
+            UserValidator.validateEmail(patch.getEmail());
+        }
+
+        if (patch.getName() != null && patch.getName().trim().isEmpty()) {
+            throw new UserException.ValidationException("User name cannot be empty");
+        }
+
+        if (patch.getAge() != null) {
+            UserValidator.validateAge(patch.getAge());
+        }
+    }
+
+    private void validatePageRequest(Long afterId, int limit) {
+        if (afterId != null && afterId < 0) {
+            throw new UserException.ValidationException("Invalid page cursor");
         }
 
-        if (!email.contains("@") || !email.contains(".")) {
-            throw new UserException.ValidationException("Invalid email format");
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new UserException.ValidationException(
+                    "Page size must be between 1 and " + MAX_PAGE_SIZE);
         }
     }
 
     // Методы обработки исключений
+    private UserException translateSaveException(Transaction transaction, User user, Exception e) {
+        ConstraintViolationException constraintViolation = findCause(e, ConstraintViolationException.class);
+        if (constraintViolation != null) {
+            handleConstraintViolation(transaction, "save", user.getEmail(), constraintViolation);
+            return new UserException.ConstraintViolationException(
+                    "User with email '" + user.getEmail() + "' already exists", constraintViolation);
+        }
+
+        DataException dataException = findCause(e, DataException.class);
+        if (dataException != null) {
+            handleDataException(transaction, "save", user.getEmail(), dataException);
+            return new UserException.ValidationException("Invalid data format: " + dataException.getMessage());
+        }
+
+        handleGenericException(transaction, "save", user.getEmail(), e);
+        return new UserException("Failed to save user: " + e.getMessage(), e);
+    }
+
+    private static <T extends Throwable> T findCause(Throwable e, Class<T> type) {
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+        }
+        return null;
+    }
+
     private void handleConstraintViolation(Transaction transaction, String operation,
                                            String identifier, ConstraintViolationException e) {
         rollbackTransaction(transaction, operation);
@@ -247,7 +805,7 @@ public class UserDaoImpl implements UserDao {
 
     // Дополнительные методы для управления соединением
     public boolean testConnection() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = sessionFactory.get().openSession()) {
             return session.createNativeQuery("SELECT 1").uniqueResult() != null;
         } catch (Exception e) {
             logger.error("Database connection test failed", e);
@@ -0,0 +1,49 @@
+package org.example.dao;
+
+// Частичное обновление пользователя: записываются только заданные (не null) поля
+public class UserPatch {
+
+    private String name;
+    private String email;
+    private Integer age;
+
+    public UserPatch withName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public UserPatch withEmail(String email) {
+        this.email = email;
+        return this;
+    }
+
+    public UserPatch withAge(Integer age) {
+        this.age = age;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public boolean isEmpty() {
+        return name == null && email == null && age == null;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPatch{" +
+                "name='" + name + '\'' +
+                ", email='" + email + '\'' +
+                ", age=" + age +
+                '}';
+    }
+}
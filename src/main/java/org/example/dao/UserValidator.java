@@ -0,0 +1,40 @@
+package org.example.dao;
+
+import org.example.exception.UserException;
+import org.example.model.User;
+
+// Правила проверки пользователя: общие для UserDaoImpl и массового импорта
+public final class UserValidator {
+
+    private UserValidator() {
+    }
+
+    public static void validateUser(User user) {
+        if (user == null) {
+            throw new UserException.ValidationException("User cannot be null");
+        }
+        validateEmail(user.getEmail());
+
+        if (user.getName() == null || user.getName().trim().isEmpty()) {
+            throw new UserException.ValidationException("User name cannot be empty");
+        }
+
+        validateAge(user.getAge());
+    }
+
+    public static void validateEmail(String email) {
+        if (email == null || email.trim().isEmpty()) {
+            throw new UserException.ValidationException("Email cannot be empty");
+        }
+
+        if (!email.contains("@") || !email.contains(".")) {
+            throw new UserException.ValidationException("Invalid email format");
+        }
+    }
+
+    public static void validateAge(Integer age) {
+        if (age == null || age <= 0 || age > 150) {
+            throw new UserException.ValidationException("Age must be between 1 and 150");
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package org.example.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.example.UserService;
+import org.example.dao.Page;
+import org.example.dao.ReplicaRoutingUserDao;
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.example.model.UserSummary;
+import org.example.monitoring.DatabaseHealth;
+import org.example.monitoring.HealthStatus;
+import org.example.util.Json;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Маршрутизация REST-запросов к UserService. Ответы кодируются вручную в StringBuilder
+// и отдаются с Content-Length, чтобы соединение оставалось открытым (keep-alive)
+final class UserHttpHandler implements HttpHandler {
+
+    private static final Logger logger = LogManager.getLogger(UserHttpHandler.class);
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final String CLIENT_HEADER = "X-Client-Id";
+
+    private final UserService userService;
+    private final Supplier<DatabaseHealth> health;
+
+    UserHttpHandler(UserService userService, Supplier<DatabaseHealth> health) {
+        this.userService = userService;
+        this.health = health;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            routeAsClient(exchange);
+        } catch (HttpError e) {
+            if (e.allow != null) {
+                exchange.getResponseHeaders().set("Allow", e.allow);
+            }
+            sendError(exchange, e.status, e.getMessage());
+        } catch (UserException.ValidationException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (UserException.EntityNotFoundException e) {
+            sendError(exchange, 404, e.getMessage());
+        } catch (UserException.ConstraintViolationException e) {
+            sendError(exchange, 409, e.getMessage());
+        } catch (UserException.DatabaseConnectionException e) {
+            logger.error("Database unavailable: {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            sendError(exchange, 503, "Database unavailable");
+        } catch (Exception e) {
+            logger.error("Request failed: {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            sendError(exchange, 500, "Internal server error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Каждый запрос идёт в своём виртуальном потоке, поэтому read-your-writes для реплик
+    // привязывается к клиенту: заголовок X-Client-Id, без него - адрес клиента
+    private void routeAsClient(HttpExchange exchange) throws IOException {
+        String clientId = exchange.getRequestHeaders().getFirst(CLIENT_HEADER);
+        Object caller = clientId != null && !clientId.isBlank()
+                ? "client:" + clientId
+                : "address:" + exchange.getRemoteAddress().getAddress().getHostAddress();
+        try {
+            ReplicaRoutingUserDao.asCaller(caller, () -> {
+                try {
+                    route(exchange);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getRawPath();
+
+        if (path.equals("/health")) {
+            requireMethod(method, "GET");
+            sendHealth(exchange);
+        } else if (path.equals("/users") || path.equals("/users/")) {
+            if (method.equals("GET")) {
+                Map<String, String> query = parseQuery(exchange);
+                String after = query.get("after");
+                String limit = query.get("limit");
+                Page<UserSummary> page = userService.getUserPage(
+                        after != null ? parseLong(after, "after") : null,
+                        limit != null ? parseInt(limit, "limit") : DEFAULT_PAGE_SIZE);
+                sendJson(exchange, 200, appendPage(new StringBuilder(64 + page.getItems().size() * 96), page));
+            } else if (method.equals("POST")) {
+                Map<String, Object> body = readBody(exchange);
+                User user = userService.createUser(
+                        stringField(body, "name"), stringField(body, "email"), intField(body, "age"));
+                exchange.getResponseHeaders().set("Location", "/users/" + user.getId());
+                sendJson(exchange, 201, appendUser(new StringBuilder(160), user));
+            } else {
+                throw methodNotAllowed("GET, POST");
+            }
+        } else if (path.equals("/users/by-email")) {
+            requireMethod(method, "GET");
+            Optional<User> user = userService.getUserByEmail(parseQuery(exchange).get("email"));
+            sendUser(exchange, user.orElseThrow(() -> new HttpError(404, "User not found")));
+        } else if (path.equals("/users/search")) {
+            requireMethod(method, "GET");
+            List<UserSummary> users = userService.searchUserSummariesByName(parseQuery(exchange).get("name"));
+            StringBuilder json = new StringBuilder(16 + users.size() * 96).append('[');
+            appendSummaries(json, users);
+            sendJson(exchange, 200, json.append(']'));
+        } else if (path.startsWith("/users/")) {
+            Long id = parseLong(path.substring("/users/".length()), "user ID");
+            if (method.equals("GET")) {
+                sendUser(exchange, userService.getUserById(id)
+                        .orElseThrow(() -> new HttpError(404, "User not found with ID: " + id)));
+            } else if (method.equals("PUT")) {
+                Map<String, Object> body = readBody(exchange);
+                sendUser(exchange, userService.updateUser(id,
+                        stringField(body, "name"), stringField(body, "email"), intField(body, "age")));
+            } else if (method.equals("DELETE")) {
+                userService.deleteUser(id);
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                throw methodNotAllowed("GET, PUT, DELETE");
+            }
+        } else {
+            throw new HttpError(404, "No route for " + path);
+        }
+    }
+
+    private void sendHealth(HttpExchange exchange) throws IOException {
+        if (health == null) {
+            sendJson(exchange, 200, new StringBuilder("{\"status\":\"UP\"}"));
+            return;
+        }
+        DatabaseHealth current = health.get();
+        StringBuilder json = new StringBuilder(128)
+                .append("{\"status\":\"").append(current.getStatus())
+                .append("\",\"latencyMicros\":").append(current.getLatencyMicros())
+                .append(",\"consecutiveFailures\":").append(current.getConsecutiveFailures())
+                .append(",\"checkedAt\":");
+        Json.appendString(json, current.getCheckedAt() != null ? current.getCheckedAt().toString() : null)
+                .append(",\"lastError\":");
+        Json.appendString(json, current.getLastError()).append('}');
+        sendJson(exchange, current.getStatus() == HealthStatus.DOWN ? 503 : 200, json);
+    }
+
+    private static void sendUser(HttpExchange exchange, User user) throws IOException {
+        sendJson(exchange, 200, appendUser(new StringBuilder(160), user));
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        // Заголовки уже ушли (ошибка при записи тела) - остаётся только закрыть обмен
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        StringBuilder json = new StringBuilder(64).append("{\"error\":");
+        Json.appendString(json, message).append('}');
+        sendJson(exchange, status, json);
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, CharSequence json) throws IOException {
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    private static StringBuilder appendUser(StringBuilder out, User user) {
+        out.append("{\"id\":").append(user.getId()).append(",\"name\":");
+        Json.appendString(out, user.getName()).append(",\"email\":");
+        Json.appendString(out, user.getEmail()).append(",\"age\":").append(user.getAge()).append(",\"createdAt\":");
+        return Json.appendString(out, user.getCreatedAt() != null ? user.getCreatedAt().toString() : null)
+                .append('}');
+    }
+
+    private static StringBuilder appendPage(StringBuilder out, Page<UserSummary> page) {
+        out.append("{\"items\":[");
+        appendSummaries(out, page.getItems());
+        return out.append("],\"nextCursor\":").append(page.getNextCursor()).append('}');
+    }
+
+    private static void appendSummaries(StringBuilder out, List<UserSummary> users) {
+        for (int i = 0; i < users.size(); i++) {
+            UserSummary user = users.get(i);
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append("{\"id\":").append(user.getId()).append(",\"name\":");
+            Json.appendString(out, user.getName()).append(",\"email\":");
+            Json.appendString(out, user.getEmail()).append('}');
+        }
+    }
+
+    // Тело читается целиком даже при ошибке разбора, иначе соединение нельзя переиспользовать
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new HttpError(413, "Request body exceeds " + MAX_BODY_BYTES + " bytes");
+        }
+        try {
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Malformed JSON: " + e.getMessage());
+        }
+    }
+
+    private static String stringField(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new HttpError(400, "Field '" + name + "' must be a string");
+        }
+        return (String) value;
+    }
+
+    private static Integer intField(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof Long) || (Long) value != ((Long) value).intValue()) {
+            throw new HttpError(400, "Field '" + name + "' must be an integer");
+        }
+        return ((Long) value).intValue();
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        try {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+                String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                params.putIfAbsent(key, value);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Malformed query string");
+        }
+        return params;
+    }
+
+    private static long parseLong(String value, String name) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Invalid " + name + ": " + value);
+        }
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Invalid " + name + ": " + value);
+        }
+    }
+
+    private static void requireMethod(String method, String allowed) {
+        if (!method.equals(allowed)) {
+            throw methodNotAllowed(allowed);
+        }
+    }
+
+    private static HttpError methodNotAllowed(String allowed) {
+        HttpError error = new HttpError(405, "Method not allowed");
+        error.allow = allowed;
+        return error;
+    }
+
+    // Ошибка с готовым HTTP-статусом; стек не нужен
+    private static final class HttpError extends RuntimeException {
+
+        private final int status;
+        private String allow;
+
+        HttpError(int status, String message) {
+            super(message, null, false, false);
+            this.status = status;
+        }
+    }
+}
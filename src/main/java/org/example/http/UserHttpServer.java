@@ -0,0 +1,102 @@
+package org.example.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.example.UserService;
+import org.example.monitoring.DatabaseHealth;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// HTTP-интерфейс к UserService на встроенном сервере JDK (com.sun.net.httpserver).
+// Один поток принимает соединения и разбирает заголовки, обработка запросов идёт
+// на виртуальных потоках (threads = 0) или на пуле фиксированного размера.
+// Одновременных обращений к БД всё равно не больше, чем соединений в пуле Hikari
+public class UserHttpServer implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(UserHttpServer.class);
+
+    private static final int BACKLOG = 1024;
+    private static final int STOP_DELAY_SECONDS = 2;
+
+    static {
+        // Без TCP_NODELAY ответ из двух сегментов (заголовки и тело) ждёт delayed ACK клиента ~40 мс.
+        // Настройки читаются сервером JDK один раз, поэтому задаются до первого HttpServer.create
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private UserHttpServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    // health может быть null - тогда /health всегда отвечает UP
+    public static UserHttpServer start(UserService userService, Supplier<DatabaseHealth> health,
+                                       InetSocketAddress address, int threads) throws IOException {
+        if (threads < 0) {
+            throw new IllegalArgumentException("Thread count cannot be negative");
+        }
+        ExecutorService executor = threads == 0
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-", 0).factory())
+                : Executors.newFixedThreadPool(threads, platformThreads());
+
+        try {
+            HttpServer server = HttpServer.create(address, BACKLOG);
+            server.createContext("/", new UserHttpHandler(userService, health));
+            server.setExecutor(executor);
+            server.start();
+            logger.info("HTTP server listening on {} ({})", server.getAddress(),
+                    threads == 0 ? "virtual threads" : threads + " worker threads");
+            return new UserHttpServer(server, executor);
+        } catch (IOException | RuntimeException e) {
+            executor.shutdownNow();
+            throw e;
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Новые соединения перестают приниматься, начатые запросы получают до STOP_DELAY_SECONDS на завершение
+    @Override
+    public void close() {
+        stop(STOP_DELAY_SECONDS);
+    }
+
+    // В JDK 21 HttpServer.stop ждёт весь delay, даже если активных запросов нет
+    void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("HTTP server stopped");
+    }
+
+    private static ThreadFactory platformThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "http-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,310 @@
+package org.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.example.dao.BatchSaveResult;
+import org.example.dao.UserDao;
+import org.example.dao.UserPatch;
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.example.monitoring.Outcome;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Нагрузочный тест UserDao: сначала создаётся набор пользователей, затем workers потоков
+// выполняют смесь операций - прогрев и фаза измерения; в конце все созданные записи удаляются.
+//   open   - запуски по фиксированному расписанию rate/с независимо от ответов; задержка
+//            считается от запланированного момента, поэтому очередь перед потоками в неё входит
+//   closed - поток запускает следующую операцию после завершения предыдущей. При rate > 0
+//            каждый поток идёт по своему расписанию и задержка считается так же, от плана.
+//            Без rate плана нет: гистограмма дополняется HdrHistogram с ожидаемым
+//            интервалом, равным среднему времени операции
+public class LoadTest {
+
+    private static final Logger logger = LogManager.getLogger(LoadTest.class);
+
+    private static final String EMAIL_DOMAIN = "@loadtest.example.com";
+    private static final int SEED_CHUNK = 5_000;
+    // Более долгие вызовы записываются как минута
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final UserDao userDao;
+    private final LoadTestConfig config;
+    // Префикс данных прогона: не пересекается с данными прерванных прогонов
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+    private final AtomicLong saveSequence = new AtomicLong();
+    private long[] dataset;
+
+    public LoadTest(UserDao userDao, LoadTestConfig config) {
+        this.userDao = userDao;
+        this.config = config.validate();
+    }
+
+    // progress получает строку состояния раз в секунду, может быть null
+    public LoadTestReport run(Consumer<String> progress) {
+        try {
+            seed(progress);
+            if (!config.getWarmup().isZero()) {
+                runPhase("warmup", config.getWarmup(), progress);
+            }
+            LoadTestReport report = runPhase("measure", config.getDuration(), progress);
+            logger.info("Load test finished: {} ops, {} ops/sec", report.getTotalCount(),
+                    String.format("%.1f", report.getThroughput()));
+            return report;
+        } finally {
+            cleanup();
+        }
+    }
+
+    private void seed(Consumer<String> progress) {
+        int size = config.getDatasetSize();
+        dataset = new long[size];
+        for (int from = 0; from < size; from += SEED_CHUNK) {
+            int to = Math.min(from + SEED_CHUNK, size);
+            List<User> users = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                users.add(new User(datasetName(i), datasetEmail(i), 18 + i % 60));
+            }
+            BatchSaveResult result = userDao.saveAll(users);
+            if (result.hasFailures()) {
+                throw new UserException("Failed to seed load test dataset: " + result.getFailures().get(0));
+            }
+            for (int i = from; i < to; i++) {
+                dataset[i] = result.getSaved().get(i - from).getId();
+            }
+            report(progress, String.format("seed %,d/%,d users", to, size));
+        }
+    }
+
+    private LoadTestReport runPhase(String phase, Duration duration, Consumer<String> progress) {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            if (config.getMix().contains(operation)) {
+                stats.put(operation, new OperationStats());
+            }
+        }
+        AtomicLong tickets = new AtomicLong();
+        LongAdder completed = new LongAdder();
+        int workers = config.getWorkers();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        long end = start + duration.toNanos();
+
+        List<Thread> threads = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            Thread thread = new Thread(() -> work(worker, start, end, tickets, stats, completed),
+                    "loadtest-" + worker);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        long lastCount = 0;
+        long lastTime = System.nanoTime();
+        for (Thread thread : threads) {
+            try {
+                while (!thread.join(Duration.ofSeconds(1))) {
+                    long now = System.nanoTime();
+                    long count = completed.sum();
+                    report(progress, String.format("%s %ds: %,.0f ops/sec", phase,
+                            TimeUnit.NANOSECONDS.toSeconds(Math.max(0, now - start)),
+                            (count - lastCount) * 1_000_000_000.0 / (now - lastTime)));
+                    lastCount = count;
+                    lastTime = now;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UserException("Load test interrupted");
+            }
+        }
+        long elapsed = Math.max(System.nanoTime(), end) - start;
+
+        long missed = 0;
+        if (config.getMode() == LoadTestConfig.Mode.OPEN) {
+            long scheduled = (long) (duration.toNanos() / 1_000_000_000.0 * config.getRate());
+            missed = Math.max(0, scheduled - completed.sum());
+        }
+
+        // Без rate в closed нет расписания: запланированный момент - это фактический старт,
+        // и поправить задержки на coordinated omission не по чему
+        boolean corrected = config.getMode() == LoadTestConfig.Mode.OPEN || config.getRate() > 0;
+        List<OperationReport> reports = new ArrayList<>(stats.size());
+        stats.forEach((operation, operationStats) ->
+                reports.add(operationStats.toReport(operation, elapsed, corrected)));
+        return new LoadTestReport(elapsed, missed, reports);
+    }
+
+    private void work(int worker, long start, long end, AtomicLong tickets,
+                      Map<Operation, OperationStats> stats, LongAdder completed) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LoadTestConfig.Mode mode = config.getMode();
+        double rate = config.getRate();
+
+        if (mode == LoadTestConfig.Mode.OPEN) {
+            // Общее расписание на все потоки: k-й запуск в start + k / rate
+            double interval = 1_000_000_000.0 / rate;
+            while (true) {
+                long intended = start + (long) (tickets.getAndIncrement() * interval);
+                if (intended >= end || System.nanoTime() >= end) {
+                    return;
+                }
+                waitUntil(intended);
+                execute(intended, random, stats);
+                completed.increment();
+            }
+        } else if (rate > 0) {
+            // Своё расписание у каждого потока, потоки сдвинуты друг относительно друга
+            double interval = 1_000_000_000.0 * config.getWorkers() / rate;
+            long offset = (long) (interval * worker / config.getWorkers());
+            for (long k = 0; ; k++) {
+                long intended = start + offset + (long) (k * interval);
+                if (intended >= end || System.nanoTime() >= end) {
+                    return;
+                }
+                waitUntil(intended);
+                execute(intended, random, stats);
+                completed.increment();
+            }
+        } else {
+            waitUntil(start);
+            while (System.nanoTime() < end) {
+                execute(System.nanoTime(), random, stats);
+                completed.increment();
+            }
+        }
+    }
+
+    private void execute(long intended, ThreadLocalRandom random, Map<Operation, OperationStats> stats) {
+        Operation operation = config.getMix().pick(random.nextDouble());
+        long startNanos = System.nanoTime();
+        Outcome outcome;
+        try {
+            outcome = perform(operation, random);
+        } catch (RuntimeException e) {
+            outcome = Outcome.of(e);
+            if (outcome == Outcome.ERROR) {
+                logger.debug("Load test {} failed", operation.getKey(), e);
+            }
+        }
+        stats.get(operation).record(intended, startNanos, System.nanoTime(), outcome);
+    }
+
+    private Outcome perform(Operation operation, ThreadLocalRandom random) {
+        switch (operation) {
+            case SAVE:
+                long n = saveSequence.incrementAndGet();
+                User user = userDao.save(new User("Loadtest " + runId + " new " + n,
+                        "lt-" + runId + "-new" + n + EMAIL_DOMAIN, 18 + random.nextInt(60)));
+                created.add(user.getId());
+                return Outcome.SUCCESS;
+            case FIND_BY_ID:
+                return Outcome.of(userDao.findById(dataset[random.nextInt(dataset.length)]));
+            case FIND_BY_EMAIL:
+                return Outcome.of(userDao.findByEmail(datasetEmail(random.nextInt(dataset.length))));
+            case FIND_BY_NAME:
+                return userDao.findByName(datasetName(random.nextInt(dataset.length))).isEmpty()
+                        ? Outcome.NOT_FOUND : Outcome.SUCCESS;
+            case UPDATE:
+                userDao.patch(dataset[random.nextInt(dataset.length)],
+                        new UserPatch().withAge(18 + random.nextInt(60)));
+                return Outcome.SUCCESS;
+            case DELETE:
+                // Удаляются прежде всего записи, созданные save, чтобы набор для чтения не редел
+                Long id = created.poll();
+                userDao.delete(id != null ? id : dataset[random.nextInt(dataset.length)]);
+                return Outcome.SUCCESS;
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    private void cleanup() {
+        List<Long> ids = new ArrayList<>(created);
+        if (dataset != null) {
+            for (long id : dataset) {
+                if (id > 0) {
+                    ids.add(id);
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            List<Long> deleted = userDao.deleteAll(ids);
+            logger.info("Load test data removed: {} users", deleted.size());
+        } catch (UserException e) {
+            logger.warn("Failed to remove load test data (emails *-{}{}): {}", runId, EMAIL_DOMAIN, e.getMessage());
+        }
+    }
+
+    // Фиксированная ширина номера: поиск по имени находит ровно одного пользователя
+    private String datasetName(int index) {
+        return String.format("Loadtest %s %07d", runId, index);
+    }
+
+    private String datasetEmail(int index) {
+        return "lt-" + runId + "-" + index + EMAIL_DOMAIN;
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static void report(Consumer<String> progress, String message) {
+        if (progress != null) {
+            progress.accept(message);
+        }
+    }
+
+    // Счётчики и гистограммы одной операции за фазу; Recorder пишет без блокировок
+    private static final class OperationStats {
+
+        private final Recorder service = new Recorder(MAX_TRACKABLE_MICROS, 3);
+        private final Recorder response = new Recorder(MAX_TRACKABLE_MICROS, 3);
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder notFound = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        void record(long intendedNanos, long startNanos, long endNanos, Outcome outcome) {
+            service.recordValue(toMicros(endNanos - startNanos));
+            response.recordValue(toMicros(endNanos - intendedNanos));
+            if (outcome == Outcome.SUCCESS) {
+                succeeded.increment();
+            } else if (outcome == Outcome.NOT_FOUND) {
+                notFound.increment();
+            } else {
+                errors.increment();
+            }
+        }
+
+        OperationReport toReport(Operation operation, long elapsedNanos, boolean corrected) {
+            long count = succeeded.sum() + notFound.sum() + errors.sum();
+            return new OperationReport(operation, succeeded.sum(), notFound.sum(), errors.sum(),
+                    count * 1_000_000_000.0 / elapsedNanos, service.getIntervalHistogram(),
+                    response.getIntervalHistogram(), corrected);
+        }
+
+        private static long toMicros(long nanos) {
+            return Math.min(Math.max(nanos / 1_000, 0), MAX_TRACKABLE_MICROS);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.loadtest;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Параметры нагрузочного теста из аргументов вида key=value:
+//   workers=16 duration=30 warmup=10 dataset=10000 mode=closed|open rate=0 mix=findById=50,...
+// duration и warmup - секунды или с суффиксом ms. В режиме open rate обязателен (запросов/с на всех),
+// в closed rate = 0 - без ограничения, иначе каждый поток выдерживает rate / workers
+public final class LoadTestConfig {
+
+    public enum Mode {
+        OPEN, CLOSED
+    }
+
+    private int workers = 16;
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration warmup = Duration.ofSeconds(10);
+    private int datasetSize = 10_000;
+    private Mode mode = Mode.CLOSED;
+    private double rate;
+    private WorkloadMix mix = WorkloadMix.parse(WorkloadMix.DEFAULT);
+
+    public static LoadTestConfig parse(String[] args, int from) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (int i = from; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got '" + args[i] + "'");
+            }
+            config.set(args[i].substring(0, eq).trim(), args[i].substring(eq + 1).trim());
+        }
+        return config.validate();
+    }
+
+    private void set(String key, String value) {
+        try {
+            switch (key) {
+                case "workers":
+                    workers = Integer.parseInt(value);
+                    break;
+                case "duration":
+                    duration = parseDuration(value);
+                    break;
+                case "warmup":
+                    warmup = parseDuration(value);
+                    break;
+                case "dataset":
+                    datasetSize = Integer.parseInt(value);
+                    break;
+                case "mode":
+                    mode = parseMode(value);
+                    break;
+                case "rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "mix":
+                    mix = WorkloadMix.parse(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown load test option '" + key + "'");
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+        }
+    }
+
+    private static Mode parseMode(String value) {
+        for (Mode candidate : Mode.values()) {
+            if (candidate.name().equalsIgnoreCase(value)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Invalid mode '" + value + "', expected open or closed");
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value.endsWith("s") ? value.substring(0, value.length() - 1) : value));
+    }
+
+    LoadTestConfig validate() {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        if (duration.isZero() || duration.isNegative() || warmup.isNegative()) {
+            throw new IllegalArgumentException("duration must be positive and warmup cannot be negative");
+        }
+        if (datasetSize <= 0) {
+            throw new IllegalArgumentException("dataset must be positive");
+        }
+        if (rate < 0 || (mode == Mode.OPEN && rate == 0)) {
+            throw new IllegalArgumentException("rate must be positive in open mode and cannot be negative");
+        }
+        return this;
+    }
+
+    public LoadTestConfig withWorkers(int workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    public LoadTestConfig withDuration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public LoadTestConfig withWarmup(Duration warmup) {
+        this.warmup = warmup;
+        return this;
+    }
+
+    public LoadTestConfig withDatasetSize(int datasetSize) {
+        this.datasetSize = datasetSize;
+        return this;
+    }
+
+    public LoadTestConfig withMode(Mode mode, double rate) {
+        this.mode = mode;
+        this.rate = rate;
+        return this;
+    }
+
+    public LoadTestConfig withMix(WorkloadMix mix) {
+        this.mix = mix;
+        return this;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public int getDatasetSize() {
+        return datasetSize;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public WorkloadMix getMix() {
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadTestConfig{" +
+                "mode=" + mode.name().toLowerCase(Locale.ROOT) +
+                (rate > 0 ? ", rate=" + rate + "/s" : "") +
+                ", workers=" + workers +
+                ", duration=" + duration.toMillis() + "ms" +
+                ", warmup=" + warmup.toMillis() + "ms" +
+                ", dataset=" + datasetSize +
+                ", mix=" + mix +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.loadtest;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+
+// Итог фазы измерения: пропускная способность и задержки по операциям
+public final class LoadTestReport {
+
+    private final long elapsedNanos;
+    private final long missed;
+    private final List<OperationReport> operations;
+
+    LoadTestReport(long elapsedNanos, long missed, List<OperationReport> operations) {
+        this.elapsedNanos = elapsedNanos;
+        this.missed = missed;
+        this.operations = Collections.unmodifiableList(operations);
+    }
+
+    public List<OperationReport> getOperations() {
+        return operations;
+    }
+
+    public long getTotalCount() {
+        return operations.stream().mapToLong(OperationReport::getCount).sum();
+    }
+
+    public double getThroughput() {
+        return getTotalCount() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    // Запуски по расписанию (режим open), до которых потоки не успели дойти к концу фазы
+    public long getMissed() {
+        return missed;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-12s %9s %10s %8s %8s | %9s %9s %9s | %9s %9s %9s %9s%n",
+                "operation", "count", "ops/sec", "notFound", "errors",
+                "svc p50", "svc p99", "svc p999", "p50", "p99", "p999", "max");
+        for (OperationReport operation : operations) {
+            out.printf("%-12s %,9d %,10.1f %,8d %,8d | %9s %9s %9s | %9s %9s %9s %9s%n",
+                    operation.getOperation().getKey(), operation.getCount(), operation.getThroughput(),
+                    operation.getNotFound(), operation.getErrors(),
+                    millis(operation.getServiceMicros(50.0)), millis(operation.getServiceMicros(99.0)),
+                    millis(operation.getServiceMicros(99.9)),
+                    millis(operation.getResponseMicros(50.0)), millis(operation.getResponseMicros(99.0)),
+                    millis(operation.getResponseMicros(99.9)), millis(operation.getResponseMaxMicros()));
+        }
+        out.printf("%-12s %,9d %,10.1f%n", "total", getTotalCount(), getThroughput());
+        if (missed > 0) {
+            out.printf("⚠️ %,d scheduled requests were not started: workers could not keep up with rate%n", missed);
+        }
+        if (operations.stream().allMatch(OperationReport::isCorrected)) {
+            out.println("Latencies in ms; svc - DAO call time, p50..max - from the intended start time " +
+                    "(coordinated omission corrected)");
+        } else {
+            out.println("Latencies in ms; svc - DAO call time, p50..max - measured response time, " +
+                    "NOT corrected for coordinated omission (closed mode without rate has no schedule; set rate=...)");
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.3f", micros / 1000.0);
+    }
+}
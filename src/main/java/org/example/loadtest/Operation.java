@@ -0,0 +1,34 @@
+package org.example.loadtest;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// Операции UserDao, из которых складывается нагрузка; key - имя в параметре mix
+public enum Operation {
+    SAVE("save"),
+    FIND_BY_ID("findById"),
+    FIND_BY_EMAIL("findByEmail"),
+    FIND_BY_NAME("findByName"),
+    UPDATE("update"),
+    DELETE("delete");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "', expected one of "
+                + Arrays.stream(values()).map(Operation::getKey).collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+// Итог одной операции за фазу измерения. service - время самого вызова DAO,
+// response - от запланированного момента запуска, то есть с поправкой на coordinated omission.
+// В closed без rate расписания нет: response - измеренное время без поправки (isCorrected() == false);
+// среднее время операции как ожидаемый интервал не подходит - все значения выше среднего
+// получили бы выдуманные задержки и завышенные p99/p999
+public final class OperationReport {
+
+    private final Operation operation;
+    private final long succeeded;
+    private final long notFound;
+    private final long errors;
+    private final double throughput;
+    private final Histogram service;
+    private final Histogram response;
+    private final boolean corrected;
+
+    OperationReport(Operation operation, long succeeded, long notFound, long errors, double throughput,
+                    Histogram service, Histogram response, boolean corrected) {
+        this.operation = operation;
+        this.succeeded = succeeded;
+        this.notFound = notFound;
+        this.errors = errors;
+        this.throughput = throughput;
+        this.service = service;
+        this.response = response;
+        this.corrected = corrected;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public long getCount() {
+        return succeeded + notFound + errors;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getNotFound() {
+        return notFound;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    // Перцентиль в микросекундах, percentile - например 99.9
+    public long getServiceMicros(double percentile) {
+        return service.getValueAtPercentile(percentile);
+    }
+
+    public long getResponseMicros(double percentile) {
+        return response.getValueAtPercentile(percentile);
+    }
+
+    public long getResponseMaxMicros() {
+        return response.getMaxValue();
+    }
+
+    public boolean isCorrected() {
+        return corrected;
+    }
+
+    @Override
+    public String toString() {
+        return operation.getKey() + "{" +
+                "count=" + getCount() +
+                ", notFound=" + notFound +
+                ", errors=" + errors +
+                ", throughput=" + String.format("%.1f", throughput) + "/s" +
+                ", p50=" + getResponseMicros(50.0) + "us" +
+                ", p99=" + getResponseMicros(99.0) + "us" +
+                ", p999=" + getResponseMicros(99.9) + "us" +
+                ", max=" + getResponseMaxMicros() + "us" +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Доли операций в нагрузке: "findById=50,save=10,...". Веса относительные,
+// операция выбирается по накопленным весам за O(число операций)
+public final class WorkloadMix {
+
+    public static final String DEFAULT = "findById=50,findByEmail=20,findByName=5,save=10,update=10,delete=5";
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulative;
+    private final int total;
+
+    private WorkloadMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulative = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulative[i] = sum;
+        }
+        this.total = sum;
+    }
+
+    public static WorkloadMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] pair = part.split("[=:]", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight, got '" + part.trim() + "'");
+            }
+            Operation operation = Operation.fromKey(pair[0]);
+            int weight;
+            try {
+                weight = Integer.parseInt(pair[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight for " + operation.getKey() + ": " + pair[1].trim());
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight for " + operation.getKey() + " cannot be negative");
+            }
+            if (weight > 0 && weights.putIfAbsent(operation, weight) != null) {
+                throw new IllegalArgumentException("Duplicate weight for " + operation.getKey());
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Workload mix has no operations with positive weight");
+        }
+        return new WorkloadMix(weights);
+    }
+
+    // random - равномерно распределённое число из [0, 1)
+    public Operation pick(double random) {
+        int point = (int) (random * total);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (point < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public boolean contains(Operation operation) {
+        return weights.containsKey(operation);
+    }
+
+    @Override
+    public String toString() {
+        return weights.entrySet().stream()
+                .map(entry -> entry.getKey().getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
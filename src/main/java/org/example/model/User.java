@@ -1,15 +1,28 @@
 package org.example.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
 
+    // Пул идентификаторов: один вызов nextval на increment_size вставок,
+    // в отличие от IDENTITY не отключает JDBC batching. Id, назначенный через assignId
+    // (шардирование, перенос между шардами), генератор оставляет как есть
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "users_seq")
+    @GenericGenerator(name = "users_seq", strategy = "org.example.model.UserIdGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "users_seq"),
+            @Parameter(name = "increment_size", value = "50")})
     private Long id;
 
     @Column(name = "name", nullable = false, length = 100)
@@ -24,6 +37,9 @@ public class User {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Transient
+    private boolean idAssigned;
+
     // Конструкторы
     public User() {
         this.createdAt = LocalDateTime.now();
@@ -43,6 +59,17 @@ public class User {
 
     public void setId(Long id) {
         this.id = id;
+        this.idAssigned = false;
+    }
+
+    // Id, который save должен вставить вместо сгенерированного; обычный setId эту отметку снимает
+    public void assignId(Long id) {
+        this.id = id;
+        this.idAssigned = id != null;
+    }
+
+    public boolean isIdAssigned() {
+        return idAssigned;
     }
 
     public String getName() {
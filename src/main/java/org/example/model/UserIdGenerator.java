@@ -0,0 +1,20 @@
+package org.example.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.io.Serializable;
+
+// Последовательность users_seq (pooled), но id, назначенный через User.assignId, сохраняется:
+// шардированный DAO раздаёт id из общей последовательности и переносит строки между шардами.
+// Прочий id, оставшийся в объекте до save, заменяется новым, как у обычного генератора
+public class UserIdGenerator extends SequenceStyleGenerator {
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        if (object instanceof User && ((User) object).isIdAssigned()) {
+            return ((User) object).getId();
+        }
+        return super.generate(session, object);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.model;
+
+import java.util.Objects;
+
+// Неизменяемая проекция пользователя для списков и поиска: без age/createdAt
+// и без жизненного цикла сущности Hibernate (заполняется через select new)
+public final class UserSummary {
+
+    private final Long id;
+    private final String name;
+    private final String email;
+
+    public UserSummary(Long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserSummary that = (UserSummary) o;
+        return Objects.equals(id, that.id) &&
+                Objects.equals(email, that.email);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, email);
+    }
+
+    @Override
+    public String toString() {
+        return "UserSummary{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", email='" + email + '\'' +
+                '}';
+    }
+}
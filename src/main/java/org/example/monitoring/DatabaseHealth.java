@@ -0,0 +1,54 @@
+package org.example.monitoring;
+
+import java.time.Instant;
+
+// Снимок результата последней проверки БД; читается без обращения к базе
+public final class DatabaseHealth {
+
+    private final HealthStatus status;
+    private final long latencyMicros;
+    private final int consecutiveFailures;
+    private final Instant checkedAt;
+    private final String lastError;
+
+    public DatabaseHealth(HealthStatus status, long latencyMicros, int consecutiveFailures,
+                          Instant checkedAt, String lastError) {
+        this.status = status;
+        this.latencyMicros = latencyMicros;
+        this.consecutiveFailures = consecutiveFailures;
+        this.checkedAt = checkedAt;
+        this.lastError = lastError;
+    }
+
+    public HealthStatus getStatus() {
+        return status;
+    }
+
+    // Время последней успешной проверки, -1 если успешных не было
+    public long getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public Instant getCheckedAt() {
+        return checkedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseHealth{" +
+                "status=" + status +
+                ", latencyMicros=" + latencyMicros +
+                ", consecutiveFailures=" + consecutiveFailures +
+                ", checkedAt=" + checkedAt +
+                (lastError != null ? ", lastError='" + lastError + '\'' : "") +
+                '}';
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.monitoring;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Фоновая проверка БД на собственном соединении (не из пула приложения).
+// Результат кэшируется в DatabaseHealth, getHealth() не обращается к базе.
+// Потерянное соединение открывается заново при следующей проверке
+public class DatabaseHealthMonitor implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(DatabaseHealthMonitor.class);
+
+    private final Callable<Connection> connections;
+    private final int timeoutSeconds;
+    private final long degradedMicros;
+    private final int downAfterFailures;
+    private final ScheduledExecutorService probes;
+    private volatile DatabaseHealth health;
+    private Connection connection;
+
+    // Первая проверка выполняется сразу в конструкторе, дальше - раз в interval
+    public DatabaseHealthMonitor(Callable<Connection> connections, Duration interval,
+                                 Duration degradedLatency, int downAfterFailures) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Health check interval must be positive");
+        }
+        if (downAfterFailures <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+        this.connections = connections;
+        this.timeoutSeconds = (int) Math.max(1, interval.toSeconds());
+        this.degradedMicros = TimeUnit.NANOSECONDS.toMicros(degradedLatency.toNanos());
+        this.downAfterFailures = downAfterFailures;
+        this.health = new DatabaseHealth(HealthStatus.DOWN, -1, 0, null, "Not checked yet");
+
+        probe();
+        probes = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        probes.scheduleWithFixedDelay(this::probe, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public DatabaseHealth getHealth() {
+        return health;
+    }
+
+    synchronized void probe() {
+        DatabaseHealth previous = health;
+        long start = System.nanoTime();
+        try {
+            if (connection == null) {
+                connection = connections.call();
+            }
+            if (!connection.isValid(timeoutSeconds)) {
+                throw new SQLException("Connection is not valid after " + timeoutSeconds + " s");
+            }
+            long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            HealthStatus status = latency > degradedMicros ? HealthStatus.DEGRADED : HealthStatus.UP;
+            health = new DatabaseHealth(status, latency, 0, Instant.now(), null);
+        } catch (Exception e) {
+            closeConnection();
+            int failures = previous.getConsecutiveFailures() + 1;
+            HealthStatus status = failures >= downAfterFailures ? HealthStatus.DOWN : HealthStatus.DEGRADED;
+            health = new DatabaseHealth(status, previous.getLatencyMicros(), failures, Instant.now(), e.getMessage());
+            logger.debug("Database health check failed ({} in a row)", failures, e);
+        }
+
+        boolean firstCheckUp = previous.getCheckedAt() == null && health.getStatus() == HealthStatus.UP;
+        if (health.getStatus() != previous.getStatus() && !firstCheckUp) {
+            if (health.getStatus() == HealthStatus.UP) {
+                logger.info("Database health changed: {} -> UP", previous.getStatus());
+            } else {
+                logger.warn("Database health changed: {} -> {} ({})",
+                        previous.getStatus(), health.getStatus(), health.getLastError());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        probes.shutdownNow();
+        synchronized (this) {
+            closeConnection();
+        }
+    }
+
+    private void closeConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.debug("Failed to close health check connection", e);
+        }
+        connection = null;
+    }
+}
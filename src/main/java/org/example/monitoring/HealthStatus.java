@@ -0,0 +1,11 @@
+package org.example.monitoring;
+
+// Состояние БД по последним проверкам DatabaseHealthMonitor
+public enum HealthStatus {
+    // Проверка прошла быстрее порога
+    UP,
+    // Проверка медленная или подряд меньше downAfterFailures ошибок
+    DEGRADED,
+    // Подряд downAfterFailures и больше ошибок
+    DOWN
+}
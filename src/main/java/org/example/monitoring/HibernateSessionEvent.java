@@ -0,0 +1,29 @@
+package org.example.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Сессия Hibernate от открытия до закрытия (длительность события)
+@Name("org.example.HibernateSession")
+@Label("Hibernate Session")
+@Category({"User Service", "Hibernate"})
+@Description("Время жизни Session и число выполненных в ней операций")
+@StackTrace(false)
+public class HibernateSessionEvent extends Event {
+
+    @Label("Statements")
+    int statements;
+
+    @Label("Flushes")
+    int flushes;
+
+    @Label("Commits")
+    int commits;
+
+    @Label("Rollbacks")
+    int rollbacks;
+}
@@ -0,0 +1,88 @@
+package org.example.monitoring;
+
+import org.example.util.HibernateUtil;
+import org.hibernate.stat.Statistics;
+
+// Читает Statistics при каждом обращении, поэтому переживает
+// пересоздание SessionFactory. Требует hibernate.generate_statistics=true
+public class HibernateStatistics implements HibernateStatisticsMXBean {
+
+    private static Statistics statistics() {
+        return HibernateUtil.getSessionFactory().getStatistics();
+    }
+
+    @Override
+    public long getSessionOpenCount() {
+        return statistics().getSessionOpenCount();
+    }
+
+    @Override
+    public long getSessionCloseCount() {
+        return statistics().getSessionCloseCount();
+    }
+
+    @Override
+    public long getTransactionCount() {
+        return statistics().getTransactionCount();
+    }
+
+    @Override
+    public long getFlushCount() {
+        return statistics().getFlushCount();
+    }
+
+    @Override
+    public long getPrepareStatementCount() {
+        return statistics().getPrepareStatementCount();
+    }
+
+    @Override
+    public long getQueryExecutionCount() {
+        return statistics().getQueryExecutionCount();
+    }
+
+    @Override
+    public long getQueryExecutionMaxTimeMillis() {
+        return statistics().getQueryExecutionMaxTime();
+    }
+
+    @Override
+    public String getQueryExecutionMaxTimeQueryString() {
+        return statistics().getQueryExecutionMaxTimeQueryString();
+    }
+
+    @Override
+    public long getEntityLoadCount() {
+        return statistics().getEntityLoadCount();
+    }
+
+    @Override
+    public long getEntityFetchCount() {
+        return statistics().getEntityFetchCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheHitCount() {
+        return statistics().getSecondLevelCacheHitCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheMissCount() {
+        return statistics().getSecondLevelCacheMissCount();
+    }
+
+    @Override
+    public long getQueryCacheHitCount() {
+        return statistics().getQueryCacheHitCount();
+    }
+
+    @Override
+    public long getQueryCacheMissCount() {
+        return statistics().getQueryCacheMissCount();
+    }
+
+    @Override
+    public String[] getQueries() {
+        return statistics().getQueries();
+    }
+}
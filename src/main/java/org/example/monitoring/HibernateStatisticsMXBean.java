@@ -0,0 +1,36 @@
+package org.example.monitoring;
+
+// Statistics SessionFactory в JMX: org.example:type=Hibernate,name=Statistics.
+// Значения накопительные с момента старта
+public interface HibernateStatisticsMXBean {
+
+    long getSessionOpenCount();
+
+    long getSessionCloseCount();
+
+    long getTransactionCount();
+
+    long getFlushCount();
+
+    long getPrepareStatementCount();
+
+    long getQueryExecutionCount();
+
+    long getQueryExecutionMaxTimeMillis();
+
+    String getQueryExecutionMaxTimeQueryString();
+
+    long getEntityLoadCount();
+
+    long getEntityFetchCount();
+
+    long getSecondLevelCacheHitCount();
+
+    long getSecondLevelCacheMissCount();
+
+    long getQueryCacheHitCount();
+
+    long getQueryCacheMissCount();
+
+    String[] getQueries();
+}
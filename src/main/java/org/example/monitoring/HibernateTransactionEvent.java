@@ -0,0 +1,20 @@
+package org.example.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Завершение транзакции: мгновенное событие в момент commit или rollback
+@Name("org.example.HibernateTransaction")
+@Label("Hibernate Transaction")
+@Category({"User Service", "Hibernate"})
+@Description("Commit или rollback транзакции Hibernate")
+@StackTrace(false)
+public class HibernateTransactionEvent extends Event {
+
+    @Label("Committed")
+    boolean committed;
+}
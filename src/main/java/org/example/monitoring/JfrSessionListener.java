@@ -0,0 +1,68 @@
+package org.example.monitoring;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Подключается через hibernate.session.events.auto: Hibernate создаёт экземпляр
+// на каждую Session при открытии и вызывает end() при закрытии.
+// Если JFR-запись не идёт, все обработчики сводятся к проверке одного поля
+public class JfrSessionListener extends BaseSessionEventListener {
+
+    private final HibernateSessionEvent session;
+
+    public JfrSessionListener() {
+        HibernateSessionEvent event = new HibernateSessionEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            session = event;
+        } else {
+            session = null;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        if (session != null) {
+            session.statements++;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        if (session != null) {
+            session.statements++;
+        }
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        if (session != null) {
+            session.flushes++;
+        }
+    }
+
+    @Override
+    public void transactionCompletion(boolean successful) {
+        if (session != null) {
+            if (successful) {
+                session.commits++;
+            } else {
+                session.rollbacks++;
+            }
+        }
+        HibernateTransactionEvent event = new HibernateTransactionEvent();
+        if (event.shouldCommit()) {
+            event.committed = successful;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void end() {
+        if (session != null) {
+            session.end();
+            if (session.shouldCommit()) {
+                session.commit();
+            }
+        }
+    }
+}
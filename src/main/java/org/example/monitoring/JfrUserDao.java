@@ -0,0 +1,236 @@
+package org.example.monitoring;
+
+import org.example.dao.BatchSaveResult;
+import org.example.dao.ForwardingUserDao;
+import org.example.dao.Page;
+import org.example.dao.UserDao;
+import org.example.dao.UpsertResult;
+import org.example.dao.UserPatch;
+import org.example.model.User;
+import org.example.model.UserSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Декоратор UserDao: событие JFR org.example.UserDao на каждый вызов.
+// Событие включено по умолчанию в любой записи (jcmd <pid> JFR.start,
+// -XX:StartFlightRecording), порог и отключение - через настройки записи
+public class JfrUserDao extends ForwardingUserDao {
+
+    public JfrUserDao(UserDao delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public User save(User user) {
+        UserDaoEvent event = UserDaoEvent.start("save");
+        try {
+            User result = delegate.save(user);
+            event.finish(result.getId(), emailOf(user), 1, Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, emailOf(user), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public BatchSaveResult saveAll(Collection<User> users) {
+        UserDaoEvent event = UserDaoEvent.start("saveAll");
+        try {
+            BatchSaveResult result = delegate.saveAll(users);
+            event.finish(null, null, result.getSaved().size(), Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        UserDaoEvent event = UserDaoEvent.start("findById");
+        try {
+            Optional<User> result = delegate.findById(id);
+            event.finish(id, null, result.isPresent() ? 1 : 0, Outcome.of(result));
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(id, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<User> findAll() {
+        UserDaoEvent event = UserDaoEvent.start("findAll");
+        try {
+            List<User> result = delegate.findAll();
+            event.finish(null, null, result.size(), Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<User> findPage(Long afterId, int limit) {
+        UserDaoEvent event = UserDaoEvent.start("findPage");
+        try {
+            Page<User> result = delegate.findPage(afterId, limit);
+            event.finish(null, null, result.getItems().size(), Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        UserDaoEvent event = UserDaoEvent.start("findAllSummaries");
+        try {
+            List<UserSummary> result = delegate.findAllSummaries();
+            event.finish(null, null, result.size(), Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<UserSummary> findSummaryPage(Long afterId, int limit) {
+        UserDaoEvent event = UserDaoEvent.start("findSummaryPage");
+        try {
+            Page<UserSummary> result = delegate.findSummaryPage(afterId, limit);
+            event.finish(null, null, result.getItems().size(), Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public User update(User user) {
+        UserDaoEvent event = UserDaoEvent.start("update");
+        try {
+            User result = delegate.update(user);
+            event.finish(result.getId(), emailOf(user), 1, Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(user != null ? user.getId() : null, emailOf(user), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public User patch(Long id, UserPatch patch) {
+        UserDaoEvent event = UserDaoEvent.start("patch");
+        try {
+            User result = delegate.patch(id, patch);
+            event.finish(id, result.getEmail(), 1, Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(id, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public UpsertResult upsertByEmail(User user) {
+        UserDaoEvent event = UserDaoEvent.start("upsertByEmail");
+        try {
+            UpsertResult result = delegate.upsertByEmail(user);
+            event.finish(result.getUser().getId(), emailOf(user), 1, Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, emailOf(user), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public UpsertResult insertIfAbsent(User user) {
+        UserDaoEvent event = UserDaoEvent.start("insertIfAbsent");
+        try {
+            UpsertResult result = delegate.insertIfAbsent(user);
+            event.finish(result.isInserted() ? result.getUser().getId() : null, emailOf(user),
+                    result.isInserted() ? 1 : 0, Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, emailOf(user), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        UserDaoEvent event = UserDaoEvent.start("delete");
+        try {
+            delegate.delete(id);
+            event.finish(id, null, 1, Outcome.SUCCESS);
+        } catch (RuntimeException e) {
+            event.fail(id, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Long> deleteAll(Collection<Long> ids) {
+        UserDaoEvent event = UserDaoEvent.start("deleteAll");
+        try {
+            List<Long> result = delegate.deleteAll(ids);
+            event.finish(null, null, result.size(), Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        UserDaoEvent event = UserDaoEvent.start("findByEmail");
+        try {
+            Optional<User> result = delegate.findByEmail(email);
+            event.finish(result.map(User::getId).orElse(null), email, result.isPresent() ? 1 : 0, Outcome.of(result));
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, email, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<User> findByName(String name) {
+        UserDaoEvent event = UserDaoEvent.start("findByName");
+        try {
+            List<User> result = delegate.findByName(name);
+            event.finish(null, null, result.size(), Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<UserSummary> findSummariesByName(String name) {
+        UserDaoEvent event = UserDaoEvent.start("findSummariesByName");
+        try {
+            List<UserSummary> result = delegate.findSummariesByName(name);
+            event.finish(null, null, result.size(), Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            event.fail(null, null, e);
+            throw e;
+        }
+    }
+
+    private static String emailOf(User user) {
+        return user != null ? user.getEmail() : null;
+    }
+}
@@ -0,0 +1,263 @@
+package org.example.monitoring;
+
+import org.example.dao.BatchSaveResult;
+import org.example.dao.ForwardingUserDao;
+import org.example.dao.Page;
+import org.example.dao.UserDao;
+import org.example.dao.UpsertResult;
+import org.example.dao.UserPatch;
+import org.example.model.User;
+import org.example.model.UserSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Декоратор UserDao: время и исход каждого вызова записываются в OperationMetrics.
+// Явный try/catch вместо лямбды-обёртки, чтобы не создавать объект на каждый вызов
+public class MetricsUserDao extends ForwardingUserDao {
+
+    private final OperationMetrics saveMetrics;
+    private final OperationMetrics saveAllMetrics;
+    private final OperationMetrics findByIdMetrics;
+    private final OperationMetrics findAllMetrics;
+    private final OperationMetrics findPageMetrics;
+    private final OperationMetrics findAllSummariesMetrics;
+    private final OperationMetrics findSummaryPageMetrics;
+    private final OperationMetrics updateMetrics;
+    private final OperationMetrics patchMetrics;
+    private final OperationMetrics upsertByEmailMetrics;
+    private final OperationMetrics insertIfAbsentMetrics;
+    private final OperationMetrics deleteMetrics;
+    private final OperationMetrics deleteAllMetrics;
+    private final OperationMetrics findByEmailMetrics;
+    private final OperationMetrics findByNameMetrics;
+    private final OperationMetrics findSummariesByNameMetrics;
+
+    public MetricsUserDao(UserDao delegate, UserDaoMetrics metrics) {
+        super(delegate);
+        this.saveMetrics = metrics.operation("save");
+        this.saveAllMetrics = metrics.operation("saveAll");
+        this.findByIdMetrics = metrics.operation("findById");
+        this.findAllMetrics = metrics.operation("findAll");
+        this.findPageMetrics = metrics.operation("findPage");
+        this.findAllSummariesMetrics = metrics.operation("findAllSummaries");
+        this.findSummaryPageMetrics = metrics.operation("findSummaryPage");
+        this.updateMetrics = metrics.operation("update");
+        this.patchMetrics = metrics.operation("patch");
+        this.upsertByEmailMetrics = metrics.operation("upsertByEmail");
+        this.insertIfAbsentMetrics = metrics.operation("insertIfAbsent");
+        this.deleteMetrics = metrics.operation("delete");
+        this.deleteAllMetrics = metrics.operation("deleteAll");
+        this.findByEmailMetrics = metrics.operation("findByEmail");
+        this.findByNameMetrics = metrics.operation("findByName");
+        this.findSummariesByNameMetrics = metrics.operation("findSummariesByName");
+    }
+
+    @Override
+    public User save(User user) {
+        long start = System.nanoTime();
+        try {
+            User result = delegate.save(user);
+            saveMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            saveMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public BatchSaveResult saveAll(Collection<User> users) {
+        long start = System.nanoTime();
+        try {
+            BatchSaveResult result = delegate.saveAll(users);
+            saveAllMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            saveAllMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        long start = System.nanoTime();
+        try {
+            Optional<User> result = delegate.findById(id);
+            findByIdMetrics.found(start, result);
+            return result;
+        } catch (RuntimeException e) {
+            findByIdMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<User> findAll() {
+        long start = System.nanoTime();
+        try {
+            List<User> result = delegate.findAll();
+            findAllMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            findAllMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<User> findPage(Long afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            Page<User> result = delegate.findPage(afterId, limit);
+            findPageMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            findPageMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        long start = System.nanoTime();
+        try {
+            List<UserSummary> result = delegate.findAllSummaries();
+            findAllSummariesMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            findAllSummariesMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<UserSummary> findSummaryPage(Long afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            Page<UserSummary> result = delegate.findSummaryPage(afterId, limit);
+            findSummaryPageMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            findSummaryPageMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public User update(User user) {
+        long start = System.nanoTime();
+        try {
+            User result = delegate.update(user);
+            updateMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            updateMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public User patch(Long id, UserPatch patch) {
+        long start = System.nanoTime();
+        try {
+            User result = delegate.patch(id, patch);
+            patchMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            patchMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public UpsertResult upsertByEmail(User user) {
+        long start = System.nanoTime();
+        try {
+            UpsertResult result = delegate.upsertByEmail(user);
+            upsertByEmailMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            upsertByEmailMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public UpsertResult insertIfAbsent(User user) {
+        long start = System.nanoTime();
+        try {
+            UpsertResult result = delegate.insertIfAbsent(user);
+            insertIfAbsentMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            insertIfAbsentMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        long start = System.nanoTime();
+        try {
+            delegate.delete(id);
+            deleteMetrics.success(start);
+        } catch (RuntimeException e) {
+            deleteMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Long> deleteAll(Collection<Long> ids) {
+        long start = System.nanoTime();
+        try {
+            List<Long> result = delegate.deleteAll(ids);
+            deleteAllMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            deleteAllMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        long start = System.nanoTime();
+        try {
+            Optional<User> result = delegate.findByEmail(email);
+            findByEmailMetrics.found(start, result);
+            return result;
+        } catch (RuntimeException e) {
+            findByEmailMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<User> findByName(String name) {
+        long start = System.nanoTime();
+        try {
+            List<User> result = delegate.findByName(name);
+            findByNameMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            findByNameMetrics.failure(start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<UserSummary> findSummariesByName(String name) {
+        long start = System.nanoTime();
+        try {
+            List<UserSummary> result = delegate.findSummariesByName(name);
+            findSummariesByNameMetrics.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            findSummariesByNameMetrics.failure(start, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+// hibernate.session.events.auto принимает один класс: этот передаёт каждое событие
+// Session слушателю JFR и журналу медленного SQL. Реализует только публичный
+// SessionEventListener, без внутренних классов Hibernate
+public class MonitoringSessionListener implements SessionEventListener {
+
+    private final SessionEventListener jfr = new JfrSessionListener();
+    private final SessionEventListener slowSql = new SlowSqlListener();
+
+    @Override
+    public void transactionCompletion(boolean successful) {
+        jfr.transactionCompletion(successful);
+        slowSql.transactionCompletion(successful);
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        jfr.jdbcConnectionAcquisitionStart();
+        slowSql.jdbcConnectionAcquisitionStart();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        jfr.jdbcConnectionAcquisitionEnd();
+        slowSql.jdbcConnectionAcquisitionEnd();
+    }
+
+    @Override
+    public void jdbcConnectionReleaseStart() {
+        jfr.jdbcConnectionReleaseStart();
+        slowSql.jdbcConnectionReleaseStart();
+    }
+
+    @Override
+    public void jdbcConnectionReleaseEnd() {
+        jfr.jdbcConnectionReleaseEnd();
+        slowSql.jdbcConnectionReleaseEnd();
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        jfr.jdbcPrepareStatementStart();
+        slowSql.jdbcPrepareStatementStart();
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        jfr.jdbcPrepareStatementEnd();
+        slowSql.jdbcPrepareStatementEnd();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        jfr.jdbcExecuteStatementStart();
+        slowSql.jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        jfr.jdbcExecuteStatementEnd();
+        slowSql.jdbcExecuteStatementEnd();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jfr.jdbcExecuteBatchStart();
+        slowSql.jdbcExecuteBatchStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jfr.jdbcExecuteBatchEnd();
+        slowSql.jdbcExecuteBatchEnd();
+    }
+
+    @Override
+    public void cachePutStart() {
+        jfr.cachePutStart();
+        slowSql.cachePutStart();
+    }
+
+    @Override
+    public void cachePutEnd() {
+        jfr.cachePutEnd();
+        slowSql.cachePutEnd();
+    }
+
+    @Override
+    public void cacheGetStart() {
+        jfr.cacheGetStart();
+        slowSql.cacheGetStart();
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        jfr.cacheGetEnd(hit);
+        slowSql.cacheGetEnd(hit);
+    }
+
+    @Override
+    public void flushStart() {
+        jfr.flushStart();
+        slowSql.flushStart();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        jfr.flushEnd(numberOfEntities, numberOfCollections);
+        slowSql.flushEnd(numberOfEntities, numberOfCollections);
+    }
+
+    @Override
+    public void partialFlushStart() {
+        jfr.partialFlushStart();
+        slowSql.partialFlushStart();
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        jfr.partialFlushEnd(numberOfEntities, numberOfCollections);
+        slowSql.partialFlushEnd(numberOfEntities, numberOfCollections);
+    }
+
+    @Override
+    public void dirtyCalculationStart() {
+        jfr.dirtyCalculationStart();
+        slowSql.dirtyCalculationStart();
+    }
+
+    @Override
+    public void dirtyCalculationEnd(boolean dirty) {
+        jfr.dirtyCalculationEnd(dirty);
+        slowSql.dirtyCalculationEnd(dirty);
+    }
+
+    @Override
+    public void end() {
+        jfr.end();
+        slowSql.end();
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.monitoring;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Задержки и исходы одной операции. Запись идёт в Recorder (HdrHistogram)
+// и LongAdder-счётчики - без аллокаций и блокировок на горячем пути.
+// rotate() по расписанию забирает накопленное окно, чтение MXBean видит
+// только последнее закрытое окно
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    // Более долгие вызовы записываются как минута
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String operation;
+    private final Recorder recorder = new Recorder(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder constraintViolations = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private Histogram window;
+    private Histogram spare;
+    private long windowStartNanos;
+    private long windowNanos;
+    private long failuresAtWindowStart;
+    private long windowFailures;
+
+    OperationMetrics(String operation) {
+        this.operation = operation;
+        this.window = recorder.getIntervalHistogram();
+        this.windowStartNanos = System.nanoTime();
+    }
+
+    public void success(long startNanos) {
+        record(startNanos);
+        successes.increment();
+    }
+
+    public void notFound(long startNanos) {
+        record(startNanos);
+        notFound.increment();
+    }
+
+    public void found(long startNanos, Optional<?> result) {
+        if (result.isPresent()) {
+            success(startNanos);
+        } else {
+            notFound(startNanos);
+        }
+    }
+
+    public void failure(long startNanos, RuntimeException e) {
+        record(startNanos);
+        switch (Outcome.of(e)) {
+            case NOT_FOUND:
+                notFound.increment();
+                break;
+            case VALIDATION:
+                validationFailures.increment();
+                break;
+            case CONSTRAINT:
+                constraintViolations.increment();
+                break;
+            default:
+                errors.increment();
+        }
+    }
+
+    // Закрывает текущее окно; гистограмма предыдущего окна переиспользуется
+    synchronized void rotate() {
+        long now = System.nanoTime();
+        Histogram closed = recorder.getIntervalHistogram(spare);
+        spare = window;
+        window = closed;
+        windowNanos = now - windowStartNanos;
+        windowStartNanos = now;
+
+        long failures = failureCount();
+        windowFailures = failures - failuresAtWindowStart;
+        failuresAtWindowStart = failures;
+    }
+
+    private void record(long startNanos) {
+        long micros = (System.nanoTime() - startNanos) / 1_000;
+        recorder.recordValue(Math.min(Math.max(micros, 0), MAX_TRACKABLE_MICROS));
+    }
+
+    // Все вызовы с момента старта, включая неуспешные
+    public long getTotalCount() {
+        return successes.sum() + notFound.sum() + failureCount();
+    }
+
+    private long failureCount() {
+        return validationFailures.sum() + constraintViolations.sum() + errors.sum();
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    @Override
+    public long getNotFoundCount() {
+        return notFound.sum();
+    }
+
+    @Override
+    public long getValidationFailureCount() {
+        return validationFailures.sum();
+    }
+
+    @Override
+    public long getConstraintViolationCount() {
+        return constraintViolations.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public synchronized long getWindowSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(windowNanos);
+    }
+
+    @Override
+    public synchronized long getWindowCount() {
+        return window.getTotalCount();
+    }
+
+    @Override
+    public synchronized double getWindowThroughput() {
+        return windowNanos == 0 ? 0 : window.getTotalCount() * 1_000_000_000.0 / windowNanos;
+    }
+
+    @Override
+    public synchronized double getWindowErrorRate() {
+        long count = window.getTotalCount();
+        return count == 0 ? 0 : (double) windowFailures / count;
+    }
+
+    @Override
+    public synchronized double getWindowMeanMicros() {
+        return window.getTotalCount() == 0 ? 0 : window.getMean();
+    }
+
+    @Override
+    public synchronized long getWindowP50Micros() {
+        return window.getValueAtPercentile(50.0);
+    }
+
+    @Override
+    public synchronized long getWindowP90Micros() {
+        return window.getValueAtPercentile(90.0);
+    }
+
+    @Override
+    public synchronized long getWindowP99Micros() {
+        return window.getValueAtPercentile(99.0);
+    }
+
+    @Override
+    public synchronized long getWindowP999Micros() {
+        return window.getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public synchronized long getWindowMaxMicros() {
+        return window.getMaxValue();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return operation + "{" +
+                "ok=" + getSuccessCount() +
+                ", notFound=" + getNotFoundCount() +
+                ", validation=" + getValidationFailureCount() +
+                ", constraint=" + getConstraintViolationCount() +
+                ", errors=" + getErrorCount() +
+                ", window=" + getWindowSeconds() + "s" +
+                ", count=" + getWindowCount() +
+                ", p50=" + getWindowP50Micros() + "us" +
+                ", p99=" + getWindowP99Micros() + "us" +
+                ", max=" + getWindowMaxMicros() + "us" +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.monitoring;
+
+// Метрики одной операции UserDao в JMX: org.example:type=UserDao,operation=<имя>.
+// Счётчики - с момента старта, перцентили и скорость - за последнее закрытое окно
+public interface OperationMetricsMXBean {
+
+    String getOperation();
+
+    long getSuccessCount();
+
+    long getNotFoundCount();
+
+    long getValidationFailureCount();
+
+    long getConstraintViolationCount();
+
+    long getErrorCount();
+
+    long getWindowSeconds();
+
+    long getWindowCount();
+
+    double getWindowThroughput();
+
+    double getWindowErrorRate();
+
+    double getWindowMeanMicros();
+
+    long getWindowP50Micros();
+
+    long getWindowP90Micros();
+
+    long getWindowP99Micros();
+
+    long getWindowP999Micros();
+
+    long getWindowMaxMicros();
+}
@@ -0,0 +1,39 @@
+package org.example.monitoring;
+
+import org.example.exception.UserException;
+
+import java.util.Optional;
+
+// Исход вызова UserDao для метрик и событий JFR
+public enum Outcome {
+    SUCCESS("success"),
+    NOT_FOUND("notFound"),
+    VALIDATION("validation"),
+    CONSTRAINT("constraint"),
+    ERROR("error");
+
+    private final String label;
+
+    Outcome(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static Outcome of(Optional<?> result) {
+        return result.isPresent() ? SUCCESS : NOT_FOUND;
+    }
+
+    public static Outcome of(RuntimeException e) {
+        if (e instanceof UserException.EntityNotFoundException) {
+            return NOT_FOUND;
+        } else if (e instanceof UserException.ValidationException) {
+            return VALIDATION;
+        } else if (e instanceof UserException.ConstraintViolationException) {
+            return CONSTRAINT;
+        }
+        return ERROR;
+    }
+}
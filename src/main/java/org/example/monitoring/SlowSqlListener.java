@@ -0,0 +1,64 @@
+package org.example.monitoring;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.BaseSessionEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+// Пишет в логгер org.example.sql.slow запросы и JDBC batch дольше порога
+// (-Duserservice.slow-sql.threshold-ms, 200 мс), не больше
+// -Duserservice.slow-sql.max-per-second (10) записей в секунду.
+// Текст запроса берётся из SqlTextInspector
+public class SlowSqlListener extends BaseSessionEventListener {
+
+    private static final Logger slowSqlLogger = LogManager.getLogger("org.example.sql.slow");
+    private static final long DEFAULT_THRESHOLD_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("userservice.slow-sql.threshold-ms", 200));
+    private static final SlowSqlSampler DEFAULT_SAMPLER =
+            new SlowSqlSampler(Integer.getInteger("userservice.slow-sql.max-per-second", 10));
+
+    private final long thresholdNanos;
+    private final SlowSqlSampler sampler;
+    private long executeStartNanos;
+
+    public SlowSqlListener() {
+        this(DEFAULT_THRESHOLD_NANOS, DEFAULT_SAMPLER);
+    }
+
+    SlowSqlListener(long thresholdNanos, SlowSqlSampler sampler) {
+        this.thresholdNanos = thresholdNanos;
+        this.sampler = sampler;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        check("statement");
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        check("batch");
+    }
+
+    private void check(String kind) {
+        long now = System.nanoTime();
+        long elapsed = now - executeStartNanos;
+        if (elapsed < thresholdNanos || !sampler.tryAcquire(now)) {
+            return;
+        }
+        slowSqlLogger.warn("Slow SQL {} took {} ms (not logged since last: {}): {}",
+                kind, TimeUnit.NANOSECONDS.toMillis(elapsed), sampler.drainSuppressed(),
+                SqlTextInspector.CURRENT_SQL.get());
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.monitoring;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Ограничивает число записей о медленном SQL в секунду: при всплеске
+// логируются первые maxPerSecond, остальные только считаются
+class SlowSqlSampler {
+
+    private final int maxPerSecond;
+    private final AtomicLong currentSecond = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicInteger taken = new AtomicInteger();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+
+    SlowSqlSampler(int maxPerSecond) {
+        if (maxPerSecond <= 0) {
+            throw new IllegalArgumentException("Slow SQL log rate must be positive");
+        }
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    boolean tryAcquire(long nowNanos) {
+        long second = nowNanos / 1_000_000_000L;
+        long current = currentSecond.get();
+        if (second != current && currentSecond.compareAndSet(current, second)) {
+            taken.set(0);
+        }
+        if (taken.incrementAndGet() <= maxPerSecond) {
+            sampled.increment();
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    long getSampled() {
+        return sampled.sum();
+    }
+
+    // Пропущенные с прошлой записи
+    long drainSuppressed() {
+        return suppressed.sumThenReset();
+    }
+}
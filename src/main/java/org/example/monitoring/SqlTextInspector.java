@@ -0,0 +1,16 @@
+package org.example.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Запоминает текст SQL, который Hibernate готовит в текущем потоке:
+// SessionEventListener получает только моменты выполнения, без самого запроса
+public class SqlTextInspector implements StatementInspector {
+
+    static final ThreadLocal<String> CURRENT_SQL = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        CURRENT_SQL.set(sql);
+        return sql;
+    }
+}
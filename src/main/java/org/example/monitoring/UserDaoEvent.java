@@ -0,0 +1,56 @@
+package org.example.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Событие JFR на один вызов UserDao. Email в запись не попадает, только его hashCode.
+// Когда запись не идёт, begin/end/shouldCommit - пустые вызовы, а объект события
+// JIT обычно убирает (escape analysis)
+@Name("org.example.UserDao")
+@Label("User DAO Call")
+@Category({"User Service", "DAO"})
+@Description("Вызов метода UserDao")
+@StackTrace(false)
+public class UserDaoEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Email Hash")
+    int emailHash;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Outcome")
+    String outcome;
+
+    static UserDaoEvent start(String operation) {
+        UserDaoEvent event = new UserDaoEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    void finish(Long id, String email, int rows, Outcome outcome) {
+        end();
+        if (shouldCommit()) {
+            this.userId = id != null ? id : 0;
+            this.emailHash = email != null ? email.hashCode() : 0;
+            this.rows = rows;
+            this.outcome = outcome.getLabel();
+            commit();
+        }
+    }
+
+    void fail(Long id, String email, RuntimeException e) {
+        finish(id, email, 0, Outcome.of(e));
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.monitoring;
+
+import org.example.dao.CoalescingUserDaoMXBean;
+import org.example.dao.SingleFlightUserDaoMXBean;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Набор OperationMetrics по операциям UserDao: публикует их и Hibernate Statistics
+// в платформенный MBeanServer и раз в window закрывает окно перцентилей
+public class UserDaoMetrics implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(UserDaoMetrics.class);
+    public static final String JMX_DOMAIN = "org.example";
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final List<ObjectName> registered = Collections.synchronizedList(new ArrayList<>());
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private final ScheduledExecutorService rotation;
+
+    public UserDaoMetrics(Duration window) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Metrics window must be positive");
+        }
+        rotation = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "userdao-metrics-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rotation.scheduleAtFixedRate(this::rotate, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+        register("type=Hibernate,name=Statistics", new HibernateStatistics());
+    }
+
+    public OperationMetrics operation(String name) {
+        return operations.computeIfAbsent(name, key -> {
+            OperationMetrics metrics = new OperationMetrics(key);
+            register("type=UserDao,operation=" + key, metrics);
+            return metrics;
+        });
+    }
+
+    public void coalescer(CoalescingUserDaoMXBean coalescer) {
+        register("type=UserDao,name=SaveCoalescer", coalescer);
+    }
+
+    public void singleFlight(SingleFlightUserDaoMXBean singleFlight) {
+        register("type=UserDao,name=SingleFlight", singleFlight);
+    }
+
+    public Collection<OperationMetrics> getOperations() {
+        return Collections.unmodifiableCollection(operations.values());
+    }
+
+    void rotate() {
+        operations.values().forEach(OperationMetrics::rotate);
+    }
+
+    @Override
+    public void close() {
+        rotation.shutdownNow();
+        synchronized (registered) {
+            for (ObjectName name : registered) {
+                try {
+                    server.unregisterMBean(name);
+                } catch (JMException e) {
+                    logger.debug("MBean {} was already unregistered", name);
+                }
+            }
+            registered.clear();
+        }
+    }
+
+    // Метрики нужны и без JMX, поэтому ошибка регистрации только логируется.
+    // Бин с тем же именем (от предыдущего экземпляра) заменяется
+    private void register(String properties, Object mbean) {
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":" + properties);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+            registered.add(name);
+        } catch (JMException e) {
+            logger.warn("Failed to register MBean {}: {}", properties, e.getMessage());
+        }
+    }
+}
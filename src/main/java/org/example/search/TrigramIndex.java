@@ -0,0 +1,255 @@
+package org.example.search;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Индекс триграмм по имени пользователя для поиска подстроки.
+// Отвечает только списком id-кандидатов: окончательную проверку делает запрос к БД,
+// поэтому ложные срабатывания (и устаревшие записи) на результат не влияют.
+// Списки id хранятся в отсортированных long[], общий объём ограничен maxEntries.
+public class TrigramIndex {
+
+    private static final Logger logger = LogManager.getLogger(TrigramIndex.class);
+
+    public static final int GRAM = 3;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, String> names = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long maxEntries;
+    private final int maxCandidates;
+
+    private long entries;
+    private volatile boolean ready;
+    private volatile boolean overflowed;
+
+    public TrigramIndex(long maxEntries, int maxCandidates) {
+        if (maxEntries <= 0 || maxCandidates <= 0) {
+            throw new IllegalArgumentException("Index limits must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxCandidates = maxCandidates;
+    }
+
+    // Вызывается после начальной загрузки из БД
+    public void markReady() {
+        ready = true;
+        logger.info("Name index ready: {} users, {} trigrams, {} postings",
+                size(), trigramCount(), entries);
+    }
+
+    public boolean isReady() {
+        return ready && !overflowed;
+    }
+
+    public void put(long id, String name) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            addInternal(id, normalize(name));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Для начальной загрузки: не перезаписывает имя, уже обновлённое через DAO
+    public void putIfAbsent(long id, String name) {
+        lock.writeLock().lock();
+        try {
+            if (!names.containsKey(id)) {
+                addInternal(id, normalize(name));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Возвращает отсортированные id, чьи имена содержат все триграммы запроса,
+    // или null, если индекс не может ответить (короткий запрос, не прогрет,
+    // переполнен или кандидатов слишком много) - тогда нужен обычный запрос
+    public long[] search(String query) {
+        if (!isReady() || query == null) {
+            return null;
+        }
+        String normalized = normalize(query.trim());
+        if (normalized.length() < GRAM) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] grams = distinctGrams(normalized);
+            PostingList[] lists = new PostingList[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return new long[0];
+                }
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+            long[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+            int length = result.length;
+            for (int i = 1; i < lists.length && length > 0; i++) {
+                length = intersect(result, length, lists[i]);
+            }
+            return length > maxCandidates ? null : Arrays.copyOf(result, length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int trigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addInternal(long id, String name) {
+        if (overflowed) {
+            return;
+        }
+        long[] grams = distinctGrams(name);
+        if (entries + grams.length > maxEntries) {
+            overflowed = true;
+            postings.clear();
+            names.clear();
+            entries = 0;
+            logger.warn("Name index exceeded {} postings and was disabled, "
+                    + "name search falls back to the database", maxEntries);
+            return;
+        }
+
+        names.put(id, name);
+        for (long gram : grams) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+        }
+        entries += grams.length;
+    }
+
+    private void removeInternal(long id) {
+        String name = names.remove(id);
+        if (name == null) {
+            return;
+        }
+        for (long gram : distinctGrams(name)) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(id)) {
+                entries--;
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // Пересечение на месте: result[0..length) и list, оба отсортированы
+    private static int intersect(long[] result, int length, PostingList list) {
+        int write = 0;
+        int j = 0;
+        for (int i = 0; i < length && j < list.size; i++) {
+            long id = result[i];
+            while (j < list.size && list.ids[j] < id) {
+                j++;
+            }
+            if (j < list.size && list.ids[j] == id) {
+                result[write++] = id;
+            }
+        }
+        return write;
+    }
+
+    private static long[] distinctGrams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int unique = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, unique);
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    // Отсортированный массив id. Новые пользователи получают растущие id,
+    // поэтому вставка почти всегда дописывает в конец
+    private static final class PostingList {
+
+        private long[] ids = new long[2];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            if (ids.length > 16 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+            return true;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+            }
+        }
+    }
+}
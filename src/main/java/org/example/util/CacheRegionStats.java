@@ -0,0 +1,63 @@
+package org.example.util;
+
+// Снимок счётчиков одного региона second-level cache
+public class CacheRegionStats {
+
+    private final String region;
+    private final long hits;
+    private final long misses;
+    private final long puts;
+    private final long evictions;
+    private final long size;
+
+    public CacheRegionStats(String region, long hits, long misses, long puts, long evictions, long size) {
+        this.region = region;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheRegionStats{" +
+                "region='" + region + '\'' +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", puts=" + puts +
+                ", evictions=" + evictions +
+                ", size=" + size +
+                String.format(", hitRatio=%.2f", getHitRatio()) +
+                '}';
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.util;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Статистика времени получения соединения из пула HikariCP.
+// Гистограмма по степеням двойки (в микросекундах) - без аллокаций на горячем пути
+public class ConnectionPoolMetrics implements MetricsTrackerFactory, IMetricsTracker {
+
+    private static final int BUCKETS = 40;
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireTotalNanos = new LongAdder();
+    private final LongAccumulator acquireMaxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray acquireHistogram = new AtomicLongArray(BUCKETS);
+    private final LongAdder usageCount = new LongAdder();
+    private final LongAdder usageTotalMillis = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return this;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireCount.increment();
+        acquireTotalNanos.add(elapsedAcquiredNanos);
+        acquireMaxNanos.accumulate(elapsedAcquiredNanos);
+        acquireHistogram.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMicros(elapsedAcquiredNanos)));
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageCount.increment();
+        usageTotalMillis.add(elapsedBorrowedMillis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    public long getAcquireAvgMicros() {
+        long count = acquireCount.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(acquireTotalNanos.sum() / count);
+    }
+
+    public long getAcquireMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(acquireMaxNanos.get());
+    }
+
+    // Верхняя граница корзины, в которую попадает заданный перцентиль
+    public long getAcquirePercentileMicros(double percentile) {
+        long total = 0;
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = acquireHistogram.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long threshold = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= threshold) {
+                return Math.min((1L << i) - 1, getAcquireMaxMicros());
+            }
+        }
+        return getAcquireMaxMicros();
+    }
+
+    public long getUsageAvgMillis() {
+        long count = usageCount.sum();
+        return count == 0 ? 0 : usageTotalMillis.sum() / count;
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    private static int bucketOf(long micros) {
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+}
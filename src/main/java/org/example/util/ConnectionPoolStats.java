@@ -0,0 +1,86 @@
+package org.example.util;
+
+// Снимок состояния пула соединений на момент вызова HibernateUtil.getPoolStats()
+public class ConnectionPoolStats {
+
+    private final int active;
+    private final int idle;
+    private final int pending;
+    private final int total;
+    private final int maxPoolSize;
+    private final long acquireCount;
+    private final long acquireAvgMicros;
+    private final long acquireP99Micros;
+    private final long acquireMaxMicros;
+    private final long timeouts;
+
+    public ConnectionPoolStats(int active, int idle, int pending, int total, int maxPoolSize,
+                               long acquireCount, long acquireAvgMicros, long acquireP99Micros,
+                               long acquireMaxMicros, long timeouts) {
+        this.active = active;
+        this.idle = idle;
+        this.pending = pending;
+        this.total = total;
+        this.maxPoolSize = maxPoolSize;
+        this.acquireCount = acquireCount;
+        this.acquireAvgMicros = acquireAvgMicros;
+        this.acquireP99Micros = acquireP99Micros;
+        this.acquireMaxMicros = acquireMaxMicros;
+        this.timeouts = timeouts;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public long getAcquireAvgMicros() {
+        return acquireAvgMicros;
+    }
+
+    public long getAcquireP99Micros() {
+        return acquireP99Micros;
+    }
+
+    public long getAcquireMaxMicros() {
+        return acquireMaxMicros;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStats{" +
+                "active=" + active +
+                ", idle=" + idle +
+                ", pending=" + pending +
+                ", total=" + total + "/" + maxPoolSize +
+                ", acquireCount=" + acquireCount +
+                ", acquireAvgMicros=" + acquireAvgMicros +
+                ", acquireP99Micros=" + acquireP99Micros +
+                ", acquireMaxMicros=" + acquireMaxMicros +
+                ", timeouts=" + timeouts +
+                '}';
+    }
+}
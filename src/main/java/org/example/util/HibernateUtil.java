@@ -1,30 +1,90 @@
 package org.example.util;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.example.exception.UserException;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.service.spi.ServiceException;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.hibernate.tool.hbm2ddl.SchemaValidator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
 public class HibernateUtil {
 
     private static final Logger logger = LogManager.getLogger(HibernateUtil.class);
-    private static SessionFactory sessionFactory;
+    private static final ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics();
+    private static volatile SessionFactory sessionFactory;
+    private static volatile HikariDataSource dataSource;
+    private static volatile Duration bootstrapTime;
+    private static CompletableFuture<SessionFactory> bootstrap;
 
-    static {
-        initializeSessionFactory();
+    // Режим запуска: -Duserservice.mode=production отключает hbm2ddl и чтение метаданных JDBC
+    // при старте, схема проверяется в фоне уже после готовности SessionFactory
+    public static boolean isProductionMode() {
+        return "production".equalsIgnoreCase(System.getProperty("userservice.mode"));
+    }
+
+    // Запускает сборку SessionFactory в фоновом потоке, чтобы остальная инициализация
+    // приложения шла параллельно. Повторные вызовы возвращают ту же сборку,
+    // после ошибки или shutdown() сборка начинается заново
+    public static synchronized CompletableFuture<SessionFactory> startAsync() {
+        if (bootstrap == null || bootstrap.isCompletedExceptionally()) {
+            CompletableFuture<SessionFactory> future = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    initializeSessionFactory();
+                    future.complete(sessionFactory);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            }, "hibernate-bootstrap");
+            thread.setDaemon(true);
+            thread.start();
+            bootstrap = future;
+        }
+        return bootstrap;
     }
 
     private static void initializeSessionFactory() {
+        long start = System.nanoTime();
         try {
-            logger.info("Initializing Hibernate SessionFactory...");
+            logger.info("Initializing Hibernate SessionFactory ({} mode)...",
+                    isProductionMode() ? "production" : "development");
+
+            Map<String, Object> settings = isProductionMode() ? productionSettings() : new HashMap<>();
+            settings.putAll(systemOverrides());
 
             StandardServiceRegistry standardRegistry = new StandardServiceRegistryBuilder()
                     .configure("hibernate.cfg.xml")
+                    .applySettings(settings)
                     .build();
 
             Metadata metadata = new MetadataSources(standardRegistry)
@@ -32,7 +92,13 @@ public class HibernateUtil {
                     .build();
 
             sessionFactory = metadata.getSessionFactoryBuilder().build();
-            logger.info("Hibernate SessionFactory created successfully");
+            registerPoolMetrics();
+            bootstrapTime = Duration.ofNanos(System.nanoTime() - start);
+            logger.info("Hibernate SessionFactory created in {} ms", bootstrapTime.toMillis());
+
+            if (isProductionMode() && !Boolean.getBoolean("userservice.schema.skip-validation")) {
+                validateSchemaInBackground(metadata, standardRegistry, sessionFactory);
+            }
 
         } catch (ServiceException e) {
             handleServiceException(e);
@@ -41,6 +107,62 @@ public class HibernateUtil {
         }
     }
 
+    // Схема не сканируется при старте: hbm2ddl выключен, диалект задан явно,
+    // поэтому метаданные JDBC тоже не нужны
+    private static Map<String, Object> productionSettings() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(AvailableSettings.HBM2DDL_AUTO, "none");
+        settings.put("hibernate.temp.use_jdbc_metadata_defaults", "false");
+        return settings;
+    }
+
+    // Отложенная проверка схемы: расхождение с маппингом попадает в лог ошибок,
+    // но не задерживает запуск
+    private static void validateSchemaInBackground(Metadata metadata, StandardServiceRegistry registry,
+                                                   SessionFactory factory) {
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                new SchemaValidator().validate(metadata, registry);
+                logger.info("Database schema validated in {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (Exception e) {
+                if (factory.isClosed()) {
+                    logger.debug("Schema validation interrupted by shutdown", e);
+                } else {
+                    logger.error("Database schema does not match entity mappings", e);
+                }
+            }
+        }, "schema-validator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // -Dhibernate.xxx имеет приоритет над hibernate.cfg.xml (настройка пула, тесты)
+    private static Map<String, Object> systemOverrides() {
+        Map<String, Object> overrides = new HashMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("hibernate.")) {
+                overrides.put(name, System.getProperty(name));
+            }
+        }
+        return overrides;
+    }
+
+    private static void registerPoolMetrics() {
+        ConnectionProvider provider = ((SessionFactoryImplementor) sessionFactory)
+                .getServiceRegistry().getService(ConnectionProvider.class);
+
+        if (provider != null && provider.isUnwrappableAs(HikariDataSource.class)) {
+            dataSource = provider.unwrap(HikariDataSource.class);
+            dataSource.setMetricsTrackerFactory(poolMetrics);
+            logger.info("Connection pool '{}' started: minIdle={}, maxPoolSize={}",
+                    dataSource.getPoolName(), dataSource.getMinimumIdle(), dataSource.getMaximumPoolSize());
+        } else {
+            logger.warn("Connection provider is not HikariCP, pool statistics are unavailable");
+        }
+    }
+
     private static void handleServiceException(ServiceException e) {
         String errorMessage = "Hibernate service configuration error: " + e.getMessage();
         logger.error(errorMessage, e);
@@ -71,17 +193,209 @@ public class HibernateUtil {
         throw new UserException(errorMessage, e);
     }
 
+    // Адреса реплик для чтения: -Duserservice.replicas=jdbc:postgresql://host1/db,jdbc:postgresql://host2/db
+    public static List<String> getReplicaUrls() {
+        return splitUrls(System.getProperty("userservice.replicas", ""));
+    }
+
+    // SessionFactory реплики: тот же маппинг и настройки, но свой пул и без hbm2ddl.
+    // Пул стартует и без доступной реплики: ошибка подключения проявится при запросе,
+    // и чтение уйдёт на другой узел. Логин и пароль - userservice.replica.username/password,
+    // по умолчанию как у основной БД
+    public static SessionFactory buildReplicaSessionFactory(String jdbcUrl, String poolName) {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(AvailableSettings.HBM2DDL_AUTO, "none");
+        settings.put("hibernate.hikari.initializationFailTimeout", "-1");
+        String username = System.getProperty("userservice.replica.username");
+        if (username != null) {
+            settings.put(AvailableSettings.USER, username);
+            settings.put(AvailableSettings.PASS, System.getProperty("userservice.replica.password", ""));
+        }
+        return buildSecondarySessionFactory("replica", jdbcUrl, poolName, settings);
+    }
+
+    // SessionFactory дополнительного шарда: схема создаётся и проверяется так же, как у основной БД
+    public static SessionFactory buildShardSessionFactory(String jdbcUrl, String poolName) {
+        return buildSecondarySessionFactory("shard", jdbcUrl, poolName, new HashMap<>());
+    }
+
+    // Адреса дополнительных шардов (шард 0 - основная БД): -Duserservice.shards=jdbc:...,jdbc:...
+    public static List<String> getShardUrls() {
+        return splitUrls(System.getProperty("userservice.shards", ""));
+    }
+
+    // Second-level и query cache выключены: регионы JCache общие для всех SessionFactory,
+    // а ключ запроса в query cache не знает, к какой БД относится результат
+    private static SessionFactory buildSecondarySessionFactory(String role, String jdbcUrl, String poolName,
+                                                               Map<String, Object> extra) {
+        Map<String, Object> settings = isProductionMode() ? productionSettings() : new HashMap<>();
+        settings.putAll(systemOverrides());
+        settings.put(AvailableSettings.URL, jdbcUrl);
+        settings.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+        settings.put(AvailableSettings.USE_QUERY_CACHE, "false");
+        settings.put("hibernate.hikari.poolName", poolName);
+        settings.putAll(extra);
+
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .configure("hibernate.cfg.xml")
+                .applySettings(settings)
+                .build();
+        try {
+            SessionFactory factory = new MetadataSources(registry).buildMetadata().buildSessionFactory();
+            logger.info("SessionFactory '{}' created for {} {}", poolName, role, jdbcUrl);
+            return factory;
+        } catch (Exception e) {
+            StandardServiceRegistryBuilder.destroy(registry);
+            throw new UserException("Failed to initialize " + role + " " + jdbcUrl + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static List<String> splitUrls(String value) {
+        List<String> urls = new ArrayList<>();
+        for (String url : value.split(",")) {
+            if (!url.isBlank()) {
+                urls.add(url.trim());
+            }
+        }
+        return urls;
+    }
+
+    // Ждёт окончания сборки, если она ещё идёт (или запускает её при первом обращении)
     public static SessionFactory getSessionFactory() {
-        if (sessionFactory == null || sessionFactory.isClosed()) {
-            throw new UserException("Hibernate SessionFactory is not initialized or closed");
+        SessionFactory factory = sessionFactory;
+        if (factory == null) {
+            factory = awaitSessionFactory();
+        }
+        if (factory.isClosed()) {
+            throw new UserException("Hibernate SessionFactory is closed");
+        }
+        return factory;
+    }
+
+    private static SessionFactory awaitSessionFactory() {
+        try {
+            return startAsync().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new UserException("Failed to initialize Hibernate: " + e.getCause(), e.getCause());
+        }
+    }
+
+    // Сессия для поиска: сущности загружаются read-only (без снимков состояния
+    // для dirty checking), flush не выполняется. В отличие от StatelessSession
+    // продолжает использовать second-level cache
+    public static Session openReadOnlySession(SessionFactory factory) {
+        Session session = factory.openSession();
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        return session;
+    }
+
+    // Проверка готовности: SELECT 1 на соединении из пула, таблицы не затрагиваются
+    public static void ping() {
+        try (Session session = getSessionFactory().openSession()) {
+            session.doWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+            });
+        } catch (UserException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new UserException.DatabaseConnectionException("Database is not reachable: " + e.getMessage(), e);
+        }
+    }
+
+    // Отдельное соединение в обход пула с теми же настройками подключения
+    // (для фоновых проверок, которые не должны занимать соединения приложения).
+    // Настройки берутся из HikariCP: в свойствах SessionFactory логин и пароль замаскированы
+    public static Connection openDedicatedConnection() throws SQLException {
+        getSessionFactory();
+        HikariDataSource dataSource = HibernateUtil.dataSource;
+        if (dataSource == null || dataSource.isClosed()) {
+            throw new SQLException("Connection pool is not initialized or closed");
+        }
+        return DriverManager.getConnection(dataSource.getJdbcUrl(), dataSource.getUsername(), dataSource.getPassword());
+    }
+
+    // Время сборки SessionFactory, null пока она не готова
+    public static Duration getBootstrapTime() {
+        return bootstrapTime;
+    }
+
+    public static ConnectionPoolStats getPoolStats() {
+        getSessionFactory();
+        HikariDataSource dataSource = HibernateUtil.dataSource;
+        if (dataSource == null || dataSource.isClosed()) {
+            throw new UserException("Connection pool is not initialized or closed");
+        }
+
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new ConnectionPoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getThreadsAwaitingConnection(),
+                pool.getTotalConnections(),
+                dataSource.getMaximumPoolSize(),
+                poolMetrics.getAcquireCount(),
+                poolMetrics.getAcquireAvgMicros(),
+                poolMetrics.getAcquirePercentileMicros(99.0),
+                poolMetrics.getAcquireMaxMicros(),
+                poolMetrics.getTimeouts());
+    }
+
+    public static List<CacheRegionStats> getCacheStats() {
+        Statistics statistics = getSessionFactory().getStatistics();
+        List<CacheRegionStats> result = new ArrayList<>();
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats != null) {
+                result.add(new CacheRegionStats(region,
+                        regionStats.getHitCount(),
+                        regionStats.getMissCount(),
+                        regionStats.getPutCount(),
+                        getCacheEvictions(region),
+                        Math.max(regionStats.getElementCountInMemory(), -1)));
+            }
+        }
+        return result;
+    }
+
+    // Hibernate не считает вытеснения - берём их из JCache statistics MXBean провайдера
+    private static long getCacheEvictions(String region) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Set<ObjectName> names = server.queryNames(new ObjectName(
+                    "javax.cache:type=CacheStatistics,CacheManager=*,Cache=" + region), null);
+            long evictions = 0;
+            for (ObjectName name : names) {
+                evictions += (Long) server.getAttribute(name, "CacheEvictions");
+            }
+            return evictions;
+        } catch (Exception e) {
+            logger.debug("Cache eviction statistics unavailable for region {}", region, e);
+            return 0;
         }
-        return sessionFactory;
     }
 
     public static void shutdown() {
+        SessionFactory factory;
+        synchronized (HibernateUtil.class) {
+            CompletableFuture<SessionFactory> pending = bootstrap;
+            bootstrap = null;
+            if (pending != null && !pending.isDone()) {
+                // Не оставляем пул, собранный уже после shutdown()
+                pending.exceptionally(e -> null).join();
+            }
+            factory = sessionFactory;
+            sessionFactory = null;
+        }
         try {
-            if (sessionFactory != null && !sessionFactory.isClosed()) {
-                sessionFactory.close();
+            if (factory != null && !factory.isClosed()) {
+                factory.close();
                 logger.info("Hibernate SessionFactory closed successfully");
             }
         } catch (Exception e) {
@@ -91,10 +405,12 @@ public class HibernateUtil {
     }
 
     public static boolean isConnected() {
-        try {
-            return sessionFactory != null &&
-                    !sessionFactory.isClosed() &&
-                    sessionFactory.openSession().isConnected();
+        SessionFactory factory = sessionFactory;
+        if (factory == null || factory.isClosed()) {
+            return false;
+        }
+        try (Session session = factory.openSession()) {
+            return session.isConnected();
         } catch (Exception e) {
             logger.warn("Database connection check failed", e);
             return false;
@@ -0,0 +1,291 @@
+package org.example.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Минимальные чтение и запись JSON без внешних библиотек и рефлексии
+public final class Json {
+
+    private static final int MAX_DEPTH = 32;
+
+    private Json() {
+    }
+
+    // Строка в кавычках с экранированием по RFC 8259; null пишется как null
+    public static StringBuilder appendString(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"');
+    }
+
+    // Разбирает документ, корнем которого должен быть объект. Значения: String, Long
+    // (целые) или Double, Boolean, null, вложенные Map и List. Ошибки - IllegalArgumentException
+    public static Map<String, Object> parseObject(String text) {
+        Parser parser = new Parser(text);
+        parser.skipWhitespace();
+        if (parser.peek() != '{') {
+            throw parser.error("Expected JSON object");
+        }
+        Object value = parser.readValue(0);
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw parser.error("Unexpected trailing data");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> object = (Map<String, Object>) value;
+        return object;
+    }
+
+    private static final class Parser {
+
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            if (text == null) {
+                throw new IllegalArgumentException("JSON text is null");
+            }
+            this.text = text;
+        }
+
+        Object readValue(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw error("Nesting is too deep");
+            }
+            skipWhitespace();
+            char c = peek();
+            switch (c) {
+                case '{':
+                    return readObject(depth);
+                case '[':
+                    return readArray(depth);
+                case '"':
+                    return readString();
+                case 't':
+                    expectLiteral("true");
+                    return Boolean.TRUE;
+                case 'f':
+                    expectLiteral("false");
+                    return Boolean.FALSE;
+                case 'n':
+                    expectLiteral("null");
+                    return null;
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        return readNumber();
+                    }
+                    throw error("Unexpected character '" + c + "'");
+            }
+        }
+
+        private Map<String, Object> readObject(int depth) {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Expected field name");
+                }
+                String name = readString();
+                skipWhitespace();
+                expect(':');
+                if (object.containsKey(name)) {
+                    throw error("Duplicate field '" + name + "'");
+                }
+                object.put(name, readValue(depth + 1));
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> readArray(int depth) {
+            List<Object> array = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                array.add(readValue(depth + 1));
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return array;
+                }
+            }
+        }
+
+        private String readString() {
+            pos++;
+            StringBuilder value = null;
+            int start = pos;
+            while (true) {
+                if (atEnd()) {
+                    throw error("Unterminated string");
+                }
+                char c = text.charAt(pos);
+                if (c == '"') {
+                    String tail = text.substring(start, pos++);
+                    return value == null ? tail : value.append(tail).toString();
+                }
+                if (c < 0x20) {
+                    throw error("Control character in string");
+                }
+                if (c != '\\') {
+                    pos++;
+                    continue;
+                }
+                if (value == null) {
+                    value = new StringBuilder();
+                }
+                value.append(text, start, pos);
+                value.append(readEscape());
+                start = pos;
+            }
+        }
+
+        private char readEscape() {
+            pos++;
+            if (atEnd()) {
+                throw error("Unterminated escape");
+            }
+            char c = text.charAt(pos++);
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    return c;
+                case 'b':
+                    return '\b';
+                case 'f':
+                    return '\f';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 't':
+                    return '\t';
+                case 'u':
+                    if (pos + 4 > text.length()) {
+                        throw error("Invalid unicode escape");
+                    }
+                    try {
+                        char decoded = (char) Integer.parseInt(text.substring(pos, pos + 4), 16);
+                        pos += 4;
+                        return decoded;
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                default:
+                    throw error("Invalid escape '\\" + c + "'");
+            }
+        }
+
+        private Object readNumber() {
+            int start = pos;
+            boolean integral = true;
+            if (peek() == '-') {
+                pos++;
+            }
+            while (!atEnd()) {
+                char c = text.charAt(pos);
+                if (c >= '0' && c <= '9') {
+                    pos++;
+                } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                    integral = false;
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            String number = text.substring(start, pos);
+            try {
+                return integral ? (Object) Long.parseLong(number) : (Object) Double.parseDouble(number);
+            } catch (NumberFormatException e) {
+                throw error("Invalid number '" + number + "'");
+            }
+        }
+
+        private void expectLiteral(String literal) {
+            if (!text.startsWith(literal, pos)) {
+                throw error("Expected '" + literal + "'");
+            }
+            pos += literal.length();
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("Expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        void skipWhitespace() {
+            while (!atEnd()) {
+                char c = text.charAt(pos);
+                if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        char peek() {
+            if (atEnd()) {
+                throw error("Unexpected end of JSON");
+            }
+            return text.charAt(pos);
+        }
+
+        boolean atEnd() {
+            return pos >= text.length();
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos);
+        }
+    }
+}
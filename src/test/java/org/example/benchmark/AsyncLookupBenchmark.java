@@ -0,0 +1,83 @@
+package org.example.benchmark;
+
+import org.example.dao.AsyncUserDao;
+import org.example.dao.UserDao;
+import org.example.dao.UserDaoImpl;
+import org.example.model.User;
+import org.example.util.HibernateUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Пропускная способность AsyncUserDao на виртуальных потоках против
+// фиксированного пула платформенных потоков: N одновременных findById.
+// Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+//         -Dexec.mainClass=org.example.benchmark.AsyncLookupBenchmark -Dexec.args="1000 10000"
+// Системное свойство -Dbench.platform-threads задаёт размер платформенного пула (200)
+public class AsyncLookupBenchmark {
+
+    private static final Logger logger = LogManager.getLogger(AsyncLookupBenchmark.class);
+    private static final String EMAIL_DOMAIN = "@async-bench.example.com";
+    private static final int SEED_USERS = 1_000;
+
+    public static void main(String[] args) {
+        int platformThreads = Integer.getInteger("bench.platform-threads", 200);
+        int poolSize = HibernateUtil.getPoolStats().getMaxPoolSize();
+        UserDao userDao = new UserDaoImpl();
+
+        try {
+            BenchmarkUsers.deleteByDomain(EMAIL_DOMAIN);
+            List<Long> ids = seedUsers(userDao);
+
+            // Прогрев: JIT и пул соединений
+            run(userDao, ids, 1_000, Executors.newVirtualThreadPerTaskExecutor(), poolSize);
+            run(userDao, ids, 1_000, Executors.newFixedThreadPool(platformThreads), poolSize);
+
+            for (String arg : args.length > 0 ? args : new String[]{"1000", "10000"}) {
+                int lookups = Integer.parseInt(arg);
+                double virtualRate = run(userDao, ids, lookups,
+                        Executors.newVirtualThreadPerTaskExecutor(), poolSize);
+                double platformRate = run(userDao, ids, lookups,
+                        Executors.newFixedThreadPool(platformThreads), poolSize);
+
+                System.out.printf("%,d concurrent lookups%n", lookups);
+                System.out.printf("  virtual threads        : %,10.0f lookups/sec%n", virtualRate);
+                System.out.printf("  %3d platform threads   : %,10.0f lookups/sec%n", platformThreads, platformRate);
+            }
+
+        } catch (Exception e) {
+            logger.error("Benchmark failed", e);
+        } finally {
+            BenchmarkUsers.deleteByDomain(EMAIL_DOMAIN);
+            HibernateUtil.shutdown();
+        }
+    }
+
+    // Каждый прогон начинается с пустого second-level cache, чтобы первые
+    // обращения к каждому id шли в БД, а не только в кэш
+    private static double run(UserDao userDao, List<Long> ids, int lookups,
+                              ExecutorService executor, int poolSize) {
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        try (AsyncUserDao asyncUserDao = new AsyncUserDao(userDao, executor, poolSize)) {
+            long start = System.nanoTime();
+            CompletableFuture<?>[] futures = new CompletableFuture[lookups];
+            for (int i = 0; i < lookups; i++) {
+                futures[i] = asyncUserDao.findById(ids.get(i % ids.size()));
+            }
+            CompletableFuture.allOf(futures).join();
+            return lookups / ((System.nanoTime() - start) / 1_000_000_000.0);
+        }
+    }
+
+    private static List<Long> seedUsers(UserDao userDao) {
+        List<User> users = BenchmarkUsers.generate("Async User", "async", EMAIL_DOMAIN, SEED_USERS);
+        List<Long> ids = new ArrayList<>(SEED_USERS);
+        userDao.saveAll(users).getSaved().forEach(user -> ids.add(user.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.benchmark;
+
+import org.example.model.User;
+import org.example.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Общие тестовые данные бенчмарков: каждый бенчмарк пишет пользователей со своим
+// доменом email и по нему же удаляет их до и после замеров
+final class BenchmarkUsers {
+
+    private BenchmarkUsers() {
+    }
+
+    // name + " " + i, prefix + "-" + i + domain, возраст от 18 до 77
+    static List<User> generate(String name, String prefix, String domain, int rows) {
+        List<User> users = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            users.add(new User(name + " " + i, prefix + "-" + i + domain, 18 + i % 60));
+        }
+        return users;
+    }
+
+    static void deleteByDomain(String domain) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createQuery("delete from User where email like :domain")
+                    .setParameter("domain", "%" + domain)
+                    .executeUpdate();
+            transaction.commit();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.benchmark;
+
+import org.example.bulk.ExportFormat;
+import org.example.bulk.ExportResult;
+import org.example.bulk.UserExporter;
+import org.example.util.HibernateUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Скорость полной выгрузки users в зависимости от fetch size и формата.
+// Выгружается текущее содержимое таблицы (для замера нужны сотни тысяч строк,
+// например после импорта CSV).
+// Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+//         -Dexec.mainClass=org.example.benchmark.ExportBenchmark -Dexec.args="100 1000 10000 50000"
+public class ExportBenchmark {
+
+    private static final Logger logger = LogManager.getLogger(ExportBenchmark.class);
+
+    public static void main(String[] args) throws Exception {
+        int[] fetchSizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{100, 1000, 10_000, 50_000};
+        Path dir = Files.createTempDirectory("user-export");
+
+        try {
+            // Прогрев: JIT и пул соединений
+            new UserExporter().export(dir.resolve("warmup.csv"), ExportFormat.CSV, null);
+
+            for (int fetchSize : fetchSizes) {
+                report("csv", fetchSize, new UserExporter(fetchSize)
+                        .export(dir.resolve("users.csv"), ExportFormat.CSV, null));
+            }
+            UserExporter exporter = new UserExporter();
+            report("jsonl", 10_000, exporter.export(dir.resolve("users.jsonl"), ExportFormat.JSONL, null));
+            report("csv.gz", 10_000, exporter.export(dir.resolve("users.csv.gz"), ExportFormat.CSV, null));
+
+        } catch (Exception e) {
+            logger.error("Benchmark failed", e);
+        } finally {
+            try (var files = Files.list(dir)) {
+                files.forEach(file -> file.toFile().delete());
+            }
+            Files.deleteIfExists(dir);
+            HibernateUtil.shutdown();
+        }
+    }
+
+    private static void report(String format, int fetchSize, ExportResult result) {
+        System.out.printf("%-6s fetch %6d: %,10d rows, %,8d ms, %,10.0f rows/sec, %,d bytes%n",
+                format, fetchSize, result.getRows(), result.getElapsedMillis(), result.getRowsPerSecond(),
+                result.getBytes());
+    }
+}
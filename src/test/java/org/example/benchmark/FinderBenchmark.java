@@ -0,0 +1,97 @@
+package org.example.benchmark;
+
+import org.example.dao.UserDao;
+import org.example.dao.UserDaoImpl;
+import org.example.model.User;
+import org.example.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Сравнение обычной сессии и read-only сессии (как в finder-методах UserDaoImpl)
+// на одном и том же запросе: средняя задержка и выделенная память на запрос.
+// Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+//         -Dexec.mainClass=org.example.benchmark.FinderBenchmark -Dexec.args="1000 200"
+public class FinderBenchmark {
+
+    private static final Logger logger = LogManager.getLogger(FinderBenchmark.class);
+    private static final String EMAIL_DOMAIN = "@finder-bench.example.com";
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        UserDao userDao = new UserDaoImpl();
+
+        try {
+            BenchmarkUsers.deleteByDomain(EMAIL_DOMAIN);
+            userDao.saveAll(BenchmarkUsers.generate("Finder User", "finder", EMAIL_DOMAIN, rows));
+
+            Supplier<Session> stateful = () -> HibernateUtil.getSessionFactory().openSession();
+            Supplier<Session> readOnly = () -> HibernateUtil.openReadOnlySession(HibernateUtil.getSessionFactory());
+
+            // Прогрев: JIT, пул соединений, кэш планов
+            measure(stateful, iterations);
+            measure(readOnly, iterations);
+
+            Result statefulResult = measure(stateful, iterations);
+            Result readOnlyResult = measure(readOnly, iterations);
+
+            System.out.printf("%d rows per query, %d iterations%n", rows, iterations);
+            System.out.printf("stateful  : %,10.1f us/query %,14d bytes/query%n",
+                    statefulResult.micros, statefulResult.bytes);
+            System.out.printf("read-only : %,10.1f us/query %,14d bytes/query%n",
+                    readOnlyResult.micros, readOnlyResult.bytes);
+
+        } catch (Exception e) {
+            logger.error("Benchmark failed", e);
+        } finally {
+            BenchmarkUsers.deleteByDomain(EMAIL_DOMAIN);
+            HibernateUtil.shutdown();
+        }
+    }
+
+    // Запрос с закрытием сессии внутри замера: снимки для dirty checking
+    // и проверка перед flush входят в стоимость
+    private static Result measure(Supplier<Session> sessions, int iterations) {
+        long threadId = Thread.currentThread().threadId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int loaded = 0;
+        for (int i = 0; i < iterations; i++) {
+            try (Session session = sessions.get()) {
+                Transaction transaction = session.beginTransaction();
+                List<User> users = session.createQuery(
+                                "from User where email like :domain order by id", User.class)
+                        .setParameter("domain", "%" + EMAIL_DOMAIN)
+                        .list();
+                loaded += users.size();
+                transaction.commit();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        if (loaded == 0) {
+            logger.warn("Benchmark query returned no rows");
+        }
+        return new Result(elapsed / 1_000.0 / iterations, bytes / iterations);
+    }
+
+    private static final class Result {
+
+        private final double micros;
+        private final long bytes;
+
+        Result(double micros, long bytes) {
+            this.micros = micros;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.benchmark;
+
+import org.example.dao.BatchSaveResult;
+import org.example.dao.UserDao;
+import org.example.dao.UserDaoImpl;
+import org.example.model.User;
+import org.example.util.HibernateUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+
+// Сравнение построчного save() и saveAll() по строкам в секунду.
+// Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+//         -Dexec.mainClass=org.example.benchmark.SaveAllBenchmark -Dexec.args="10000"
+public class SaveAllBenchmark {
+
+    private static final Logger logger = LogManager.getLogger(SaveAllBenchmark.class);
+    private static final String EMAIL_DOMAIN = "@saveall-bench.example.com";
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        UserDao userDao = new UserDaoImpl();
+
+        try {
+            // Прогрев: JIT, пул соединений, кэш sequence
+            runSaveLoop(userDao, "warmup-loop", 500);
+            runSaveAll(userDao, "warmup-batch", 500);
+            BenchmarkUsers.deleteByDomain(EMAIL_DOMAIN);
+
+            double loopRate = runSaveLoop(userDao, "loop", rows);
+            double batchRate = runSaveAll(userDao, "batch", rows);
+
+            System.out.printf("save() loop : %,10.0f rows/sec%n", loopRate);
+            System.out.printf("saveAll()   : %,10.0f rows/sec%n", batchRate);
+            System.out.printf("speedup     : %10.1fx%n", batchRate / loopRate);
+
+        } catch (Exception e) {
+            logger.error("Benchmark failed", e);
+        } finally {
+            BenchmarkUsers.deleteByDomain(EMAIL_DOMAIN);
+            HibernateUtil.shutdown();
+        }
+    }
+
+    private static double runSaveLoop(UserDao userDao, String prefix, int rows) {
+        List<User> users = BenchmarkUsers.generate("Bench User", prefix, EMAIL_DOMAIN, rows);
+        long start = System.nanoTime();
+        for (User user : users) {
+            userDao.save(user);
+        }
+        return rows / seconds(start);
+    }
+
+    private static double runSaveAll(UserDao userDao, String prefix, int rows) {
+        List<User> users = BenchmarkUsers.generate("Bench User", prefix, EMAIL_DOMAIN, rows);
+        long start = System.nanoTime();
+        BatchSaveResult result = userDao.saveAll(users);
+        double rate = rows / seconds(start);
+        if (result.hasFailures()) {
+            logger.warn("saveAll reported failures: {}", result);
+        }
+        return rate;
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import org.example.util.HibernateUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Время запуска до готовности (сборка SessionFactory + SELECT 1) в режимах development и production.
+// Первая сборка в JVM (загрузка классов Hibernate) выводится отдельно, остальные - медиана.
+// Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+//         -Dexec.mainClass=org.example.benchmark.StartupBenchmark -Dexec.args="10"
+public class StartupBenchmark {
+
+    private static final Logger logger = LogManager.getLogger(StartupBenchmark.class);
+    private static final String[] MODES = {"development", "production"};
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        String initialMode = System.getProperty("userservice.mode");
+        // Отложенная проверка схемы идёт после готовности и в замер не входит
+        System.setProperty("userservice.schema.skip-validation", "true");
+
+        try {
+            System.out.printf("first bootstrap (%s): %6d ms%n",
+                    HibernateUtil.isProductionMode() ? "production" : "development",
+                    bootstrapToReadyMillis());
+
+            List<List<Long>> timings = new ArrayList<>();
+            for (String ignored : MODES) {
+                timings.add(new ArrayList<>());
+            }
+            // Режимы чередуются, чтобы прогрев JIT не давал преимущества одному из них
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < MODES.length; i++) {
+                    System.setProperty("userservice.mode", MODES[i]);
+                    timings.get(i).add(bootstrapToReadyMillis());
+                }
+            }
+
+            for (int i = 0; i < MODES.length; i++) {
+                System.out.printf("%-11s: median %6d ms, min %6d ms%n",
+                        MODES[i], median(timings.get(i)), timings.get(i).stream().min(Long::compare).orElse(0L));
+            }
+
+        } catch (Exception e) {
+            logger.error("Benchmark failed", e);
+        } finally {
+            if (initialMode == null) {
+                System.clearProperty("userservice.mode");
+            } else {
+                System.setProperty("userservice.mode", initialMode);
+            }
+            HibernateUtil.shutdown();
+        }
+    }
+
+    private static long bootstrapToReadyMillis() {
+        HibernateUtil.shutdown();
+        long start = System.nanoTime();
+        HibernateUtil.startAsync();
+        HibernateUtil.ping();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static long median(List<Long> values) {
+        Long[] sorted = values.toArray(new Long[0]);
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.bulk;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CsvCodec Unit Tests")
+class CsvCodecTest {
+
+    @Test
+    @DisplayName("Should parse plain, quoted and empty fields")
+    void shouldParseFields() {
+        assertEquals(List.of("John Doe", "john@example.com", "30"), CsvCodec.parseLine("John Doe,john@example.com,30"));
+        assertEquals(List.of("Doe, John", "say \"hi\"", ""), CsvCodec.parseLine("\"Doe, John\",\"say \"\"hi\"\"\","));
+        assertEquals(List.of("", "", ""), CsvCodec.parseLine(",,"));
+    }
+
+    @Test
+    @DisplayName("Should reject unterminated quoted field")
+    void shouldRejectUnterminatedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> CsvCodec.parseLine("\"John,john@example.com,30"));
+        assertThrows(IllegalArgumentException.class, () -> CsvCodec.parseLine("\"John\"x,john@example.com,30"));
+    }
+
+    @Test
+    @DisplayName("Should quote only fields that need it and read them back")
+    void shouldQuoteOnlyWhenNeeded() {
+        StringBuilder out = new StringBuilder();
+        CsvCodec.appendField(out, "plain").append(',');
+        CsvCodec.appendField(out, "Doe, \"John\"").append(',');
+        CsvCodec.appendField(out, "").append(',');
+        CsvCodec.appendField(out, " padded");
+
+        assertEquals("plain,\"Doe, \"\"John\"\"\",\"\",\" padded\"", out.toString());
+        assertEquals(List.of("plain", "Doe, \"John\"", "", " padded"), CsvCodec.parseLine(out.toString()));
+    }
+}
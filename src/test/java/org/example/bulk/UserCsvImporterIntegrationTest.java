@@ -0,0 +1,167 @@
+package org.example.bulk;
+
+import org.example.dao.BaseDaoTest;
+import org.example.dao.UserDaoImpl;
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.example.model.UserSummary;
+import org.example.search.TrigramIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UserCsvImporter Integration Tests")
+class UserCsvImporterIntegrationTest extends BaseDaoTest {
+
+    @Test
+    @DisplayName("Should import valid rows and report invalid ones with line numbers")
+    void shouldImportValidRowsAndRejectInvalid() {
+        // Given
+        String csv = "name,email,age\n" +
+                "Alice,alice@example.com,30\n" +
+                "\"Smith, Bob\",bob@example.com,41\n" +
+                "\n" +
+                "Carol,not-an-email,25\n" +
+                "Dave,dave@example.com,abc\n" +
+                ",erin@example.com,20\n";
+        StringWriter rejects = new StringWriter();
+        List<ImportProgress> progress = new ArrayList<>();
+
+        // When
+        ImportResult result = new UserCsvImporter(DuplicatePolicy.SKIP, 2, 2)
+                .importCsv(reader(csv), rejects, progress::add);
+
+        // Then
+        assertEquals(5, result.getRowsRead());
+        assertEquals(2, result.getInserted());
+        assertEquals(3, result.getInvalid());
+        assertEquals(0, result.getDuplicates());
+        assertEquals("Smith, Bob", userDao.findByEmail("bob@example.com").orElseThrow().getName());
+        assertEquals(41, userDao.findByEmail("bob@example.com").orElseThrow().getAge());
+
+        assertEquals("5,Invalid email format,\"Carol,not-an-email,25\"\n" +
+                "6,Age must be a number,\"Dave,dave@example.com,abc\"\n" +
+                "7,User name cannot be empty,\",erin@example.com,20\"\n", rejects.toString());
+        assertFalse(progress.isEmpty());
+        assertEquals(5, progress.get(progress.size() - 1).getRowsRead());
+    }
+
+    @Test
+    @DisplayName("Should skip emails repeated in the file or already stored")
+    void shouldSkipDuplicateEmails() {
+        // Given
+        User existing = createTestUser("taken@example.com");
+        String csv = "Alice,alice@example.com,30\n" +
+                "Alice Again,alice@example.com,31\n" +
+                "Taken,taken@example.com,50\n";
+        StringWriter rejects = new StringWriter();
+
+        // When
+        ImportResult result = new UserCsvImporter(DuplicatePolicy.SKIP).importCsv(reader(csv), rejects, null);
+
+        // Then
+        assertEquals(1, result.getInserted());
+        assertEquals(2, result.getDuplicates());
+        assertEquals("Alice", userDao.findByEmail("alice@example.com").orElseThrow().getName());
+        assertEquals(existing.getName(), userDao.findByEmail("taken@example.com").orElseThrow().getName());
+        assertEquals("2,Duplicate email in file,alice@example.com\n" +
+                "3,Email already exists,taken@example.com\n", rejects.toString());
+    }
+
+    @Test
+    @DisplayName("Should update name and age of existing users with the update policy")
+    void shouldUpdateExistingUsers() {
+        // Given
+        User existing = createTestUser("taken@example.com");
+        User same = createTestUser("same@example.com");
+        userDao.findByEmail("taken@example.com");
+        String csv = "Renamed,taken@example.com,60\nNew,new@example.com,20\n" +
+                same.getName() + ",same@example.com," + same.getAge() + "\n";
+
+        // When
+        ImportResult result = new UserCsvImporter(DuplicatePolicy.UPDATE).importCsv(reader(csv), null, null);
+        ImportResult repeated = new UserCsvImporter(DuplicatePolicy.UPDATE).importCsv(reader(csv), null, null);
+
+        // Then
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(0, result.getDuplicates());
+        assertEquals(0, repeated.getUpdated());
+        assertEquals(3, repeated.getUnchanged());
+        User updated = userDao.findByEmail("taken@example.com").orElseThrow();
+        assertEquals(existing.getId(), updated.getId());
+        assertEquals("Renamed", updated.getName());
+        assertEquals(60, updated.getAge());
+    }
+
+    @Test
+    @DisplayName("Should find renamed users by name index after update import")
+    void shouldFindRenamedUsersByNameIndex() {
+        // Given
+        UserDaoImpl indexedDao = new UserDaoImpl(new TrigramIndex(10_000, 100));
+        User existing = createTestUser("renamed@example.com");
+        indexedDao.warmNameIndex();
+        String csv = "Zebulon,renamed@example.com,60\n";
+
+        List<List<UserSummary>> pages = new ArrayList<>();
+
+        // When
+        new UserCsvImporter(DuplicatePolicy.UPDATE).importCsv(reader(csv), null, null, page -> {
+            pages.add(page);
+            indexedDao.reindexNames(page);
+        });
+        indexedDao.warmNameIndex();
+
+        // Then
+        assertEquals(List.of(List.of(new UserSummary(existing.getId(), "Zebulon", "renamed@example.com"))), pages);
+        assertEquals(List.of(existing.getId()),
+                indexedDao.findByName("Zebulon").stream().map(User::getId).toList());
+        assertTrue(indexedDao.findByName(existing.getName()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should allocate ids that do not collide with ids generated by Hibernate")
+    void shouldAllocateIdsCompatibleWithHibernateSequence() {
+        // Given
+        createTestUser("before@example.com");
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            csv.append("User ").append(i).append(",user").append(i).append("@example.com,30\n");
+        }
+
+        // When
+        ImportResult result = new UserCsvImporter(DuplicatePolicy.SKIP).importCsv(reader(csv.toString()), null, null);
+        for (int i = 0; i < 60; i++) {
+            createTestUser("after" + i + "@example.com");
+        }
+
+        // Then
+        assertEquals(120, result.getInserted());
+        Set<Long> ids = new HashSet<>();
+        userDao.findAll().forEach(user -> assertTrue(ids.add(user.getId()), "Duplicate id " + user.getId()));
+        assertEquals(181, ids.size());
+    }
+
+    @Test
+    @DisplayName("Should reject a header without required columns")
+    void shouldRejectHeaderWithoutRequiredColumns() {
+        UserCsvImporter importer = new UserCsvImporter(DuplicatePolicy.SKIP);
+        assertThrows(UserException.ValidationException.class,
+                () -> importer.importCsv(reader("name,email\nAlice,alice@example.com\n"), null, null));
+        assertTrue(userDao.findAll().isEmpty());
+    }
+
+    private static BufferedReader reader(String csv) {
+        return new BufferedReader(new StringReader(csv));
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.bulk;
+
+import org.example.dao.BaseDaoTest;
+import org.example.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UserExporter Integration Tests")
+class UserExporterIntegrationTest extends BaseDaoTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should export all users as CSV ordered by id")
+    void shouldExportCsv() throws Exception {
+        // Given
+        User first = createTestUser("first@example.com");
+        User second = userDao.save(new User("Doe, \"Jane\"", "jane@example.com", 41));
+        Path file = tempDir.resolve("users.csv");
+        List<Long> progress = new ArrayList<>();
+
+        // When
+        ExportResult result = new UserExporter(1).export(file, ExportFormat.CSV, progress::add);
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, result.getRows());
+        assertEquals(Files.size(file), result.getBytes());
+        assertEquals("id,name,email,age,created_at", lines.get(0));
+        assertTrue(lines.get(1).startsWith(first.getId() + ",Test User,first@example.com,25,"));
+        assertTrue(lines.get(2).startsWith(second.getId() + ",\"Doe, \"\"Jane\"\"\",jane@example.com,41,"));
+        assertEquals(List.of(1L, 2L, 2L), progress);
+        assertFalse(Files.exists(tempDir.resolve("users.csv.part")));
+    }
+
+    @Test
+    @DisplayName("Should export JSON Lines compressed with gzip")
+    void shouldExportGzippedJsonLines() throws Exception {
+        // Given
+        User user = userDao.save(new User("Back\\slash \"Quote\"", "json@example.com", 30));
+        Path file = tempDir.resolve("users.jsonl.gz");
+
+        // When
+        ExportResult result = new UserExporter().export(file, ExportFormat.fromFileName(file), null);
+
+        // Then
+        assertEquals(1, result.getRows());
+        List<String> lines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            lines = reader.lines().collect(Collectors.toList());
+        }
+        assertEquals(1, lines.size());
+        String prefix = "{\"id\":" + user.getId() + ",\"name\":\"Back\\\\slash \\\"Quote\\\"\"," +
+                "\"email\":\"json@example.com\",\"age\":30,\"createdAt\":\"";
+        String line = lines.get(0);
+        assertTrue(line.startsWith(prefix), line);
+        assertTrue(line.endsWith("\"}"), line);
+        // PostgreSQL хранит время с точностью до микросекунд
+        LocalDateTime createdAt = LocalDateTime.parse(line.substring(prefix.length(), line.length() - 2));
+        assertTrue(Duration.between(createdAt, user.getCreatedAt()).abs().toNanos() < 1000);
+    }
+
+    @Test
+    @DisplayName("Should produce a CSV file that can be imported back")
+    void shouldRoundTripThroughImport() {
+        // Given
+        createTestUser("one@example.com");
+        createTestUser("two@example.com");
+        Path file = tempDir.resolve("users.csv");
+        new UserExporter().export(file, ExportFormat.CSV, null);
+        clearDatabase();
+
+        // When
+        ImportResult result = new UserCsvImporter(DuplicatePolicy.SKIP).importFile(file, null, null);
+
+        // Then
+        assertEquals(2, result.getInserted());
+        assertEquals(0, result.getInvalid());
+        assertTrue(userDao.findByEmail("two@example.com").isPresent());
+    }
+}
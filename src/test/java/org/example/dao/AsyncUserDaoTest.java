@@ -0,0 +1,106 @@
+package org.example.dao;
+
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AsyncUserDao Unit Tests")
+class AsyncUserDaoTest {
+
+    @Mock
+    private UserDao userDao;
+
+    private AsyncUserDao asyncUserDao;
+
+    @BeforeEach
+    void setUp() {
+        asyncUserDao = new AsyncUserDao(userDao, Executors.newVirtualThreadPerTaskExecutor(), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncUserDao.close();
+    }
+
+    @Test
+    @DisplayName("Should complete with the delegate result")
+    void shouldCompleteWithDelegateResult() {
+        // Given
+        User user = new User("John Doe", "john@example.com", 30);
+        user.setId(1L);
+        when(userDao.findById(1L)).thenReturn(Optional.of(user));
+
+        // When
+        Optional<User> result = asyncUserDao.findById(1L).join();
+
+        // Then
+        assertEquals(Optional.of(user), result);
+        verify(userDao).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should complete exceptionally with the delegate exception")
+    void shouldCompleteExceptionallyWithDelegateException() {
+        // Given
+        doThrow(new UserException.EntityNotFoundException("User not found with id: 7"))
+                .when(userDao).delete(7L);
+
+        // When
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> asyncUserDao.delete(7L).join());
+
+        // Then
+        assertInstanceOf(UserException.EntityNotFoundException.class, exception.getCause());
+    }
+
+    @Test
+    @DisplayName("Should not run more lookups at once than the concurrency limit")
+    void shouldNotExceedConcurrencyLimit() {
+        // Given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(userDao.findById(anyLong())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return Optional.empty();
+        });
+
+        // When
+        List<CompletableFuture<Optional<User>>> futures = new ArrayList<>();
+        for (long id = 0; id < 200; id++) {
+            futures.add(asyncUserDao.findById(id));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        // Then
+        assertTrue(maxRunning.get() <= 4, "max concurrent calls: " + maxRunning.get());
+        verify(userDao, times(200)).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive concurrency limit")
+    void shouldRejectNonPositiveConcurrencyLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AsyncUserDao(userDao, Executors.newVirtualThreadPerTaskExecutor(), 0));
+    }
+}
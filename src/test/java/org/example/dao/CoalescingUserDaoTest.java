@@ -0,0 +1,156 @@
+package org.example.dao;
+
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("CoalescingUserDao Unit Tests")
+class CoalescingUserDaoTest {
+
+    private final RecordingDao delegate = new RecordingDao();
+    private CoalescingUserDao coalescer;
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should commit concurrent saves as one batch")
+    void shouldCommitConcurrentSavesAsOneBatch() throws Exception {
+        // Given
+        coalescer = new CoalescingUserDao(delegate, 8, Duration.ofSeconds(10));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<User>> results = new ArrayList<>();
+
+        // When
+        try (ExecutorService callers = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                User user = new User("User " + i, "user" + i + "@example.com", 30);
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return coalescer.save(user);
+                }));
+            }
+            start.countDown();
+            for (Future<User> result : results) {
+                assertNotNull(result.get().getId());
+            }
+        }
+
+        // Then
+        assertEquals(List.of(8), delegate.batchSizes);
+        assertEquals(1, coalescer.getBatchCount());
+        assertEquals(1, coalescer.getFullBatchCount());
+        assertEquals(1.0, coalescer.getAverageFillRatio());
+        assertEquals(1, coalescer.getFillRatioHistogram()[9]);
+    }
+
+    @Test
+    @DisplayName("Should give each caller its own constraint error")
+    void shouldGiveEachCallerItsOwnError() {
+        // Given
+        coalescer = new CoalescingUserDao(delegate, 3, Duration.ofMillis(200));
+        delegate.taken.add("taken@example.com");
+
+        // When
+        CompletableFuture<User> first = coalescer.submit(new User("First", "first@example.com", 30));
+        CompletableFuture<User> duplicate = coalescer.submit(new User("Dup", "taken@example.com", 30));
+        CompletableFuture<User> third = coalescer.submit(new User("Third", "third@example.com", 30));
+
+        // Then
+        assertEquals("first@example.com", first.join().getEmail());
+        assertEquals("third@example.com", third.join().getEmail());
+        UserException.ConstraintViolationException error = assertThrows(
+                UserException.ConstraintViolationException.class,
+                () -> coalescer.save(new User("Again", "taken@example.com", 30)));
+        assertTrue(error.getMessage().contains("taken@example.com"));
+        assertTrue(duplicate.isCompletedExceptionally());
+        assertEquals(3, delegate.batchSizes.get(0));
+    }
+
+    @Test
+    @DisplayName("Should flush partial batch after max latency")
+    void shouldFlushPartialBatchAfterMaxLatency() {
+        // Given
+        coalescer = new CoalescingUserDao(delegate, 50, Duration.ofMillis(20));
+
+        // When
+        long started = System.nanoTime();
+        User saved = coalescer.save(new User("Alone", "alone@example.com", 30));
+
+        // Then
+        assertNotNull(saved.getId());
+        assertTrue(System.nanoTime() - started >= Duration.ofMillis(20).toNanos());
+        assertEquals(1, coalescer.getBatchCount());
+        assertEquals(0, coalescer.getFullBatchCount());
+        assertEquals(0.02, coalescer.getAverageFillRatio(), 1e-9);
+        assertEquals(1, coalescer.getFillRatioHistogram()[0]);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid user without queueing and forward other calls")
+    void shouldRejectInvalidUserAndForwardOtherCalls() {
+        // Given
+        UserDao userDao = mock(UserDao.class);
+        coalescer = new CoalescingUserDao(userDao, 10, Duration.ofMillis(1));
+
+        // When & Then
+        assertThrows(UserException.ValidationException.class,
+                () -> coalescer.save(new User("Bad", "not-an-email", 30)));
+        coalescer.delete(1L);
+        verify(userDao).delete(1L);
+        verify(userDao, never()).saveAll(any());
+        assertEquals(0, coalescer.getBatchCount());
+    }
+
+    // saveAll без БД: выдаёт id, занятые email отклоняет как дубликаты
+    private static class RecordingDao extends ForwardingUserDao {
+
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private final List<String> taken = new CopyOnWriteArrayList<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        RecordingDao() {
+            super(mock(UserDao.class));
+        }
+
+        @Override
+        public BatchSaveResult saveAll(Collection<User> users) {
+            batchSizes.add(users.size());
+            BatchSaveResult result = new BatchSaveResult();
+            int index = 0;
+            for (User user : users) {
+                if (taken.contains(user.getEmail())) {
+                    result.addFailure(index, 0, user, new UserException.ConstraintViolationException(
+                            "User with email '" + user.getEmail() + "' already exists", null));
+                } else {
+                    user.setId(ids.incrementAndGet());
+                    result.addSaved(user);
+                }
+                index++;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.dao;
+
+import org.example.model.User;
+import org.example.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Вторая БД играет роль реплики без репликации - то есть бесконечно отстающей:
+// запись через primary на ней не видна, а строка, вставленная только в неё,
+// показывает, что чтение ушло на реплику
+@DisplayName("Replica routing Integration Tests")
+class ReplicaRoutingIntegrationTest extends BaseDaoTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> replicaDb =
+            new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("replicadb")
+                    .withUsername("testuser")
+                    .withPassword("testpass");
+
+    private static SessionFactory replicaFactory;
+
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        execute("DROP TABLE IF EXISTS users",
+                "CREATE TABLE users (id bigint PRIMARY KEY, name varchar(100) NOT NULL,"
+                        + " email varchar(150) NOT NULL UNIQUE, age integer NOT NULL, created_at timestamp NOT NULL)",
+                "INSERT INTO users VALUES (1000000, 'Replica Only', 'replica-only@example.com', 40, now())");
+        replicaFactory = HibernateUtil.buildReplicaSessionFactory(replicaDb.getJdbcUrl(), "test-replica");
+    }
+
+    @AfterAll
+    static void closeReplica() {
+        if (replicaFactory != null) {
+            replicaFactory.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should read own writes from primary and others from replica")
+    void shouldReadOwnWritesFromPrimary() {
+        // Given
+        ReplicaRoutingUserDao dao = routing(List.of(new UserDaoImpl(replicaFactory)), Duration.ofMinutes(1));
+        User saved = ReplicaRoutingUserDao.asCaller("alice",
+                () -> dao.save(new User("Alice", "alice@example.com", 30)));
+
+        // When
+        boolean seenByWriter = ReplicaRoutingUserDao.asCaller("alice",
+                () -> dao.findById(saved.getId()).isPresent());
+        boolean seenByOther = ReplicaRoutingUserDao.asCaller("bob",
+                () -> dao.findByEmail("alice@example.com").isPresent());
+
+        // Then
+        assertTrue(seenByWriter);
+        assertFalse(seenByOther);
+        assertEquals(1, dao.getPrimaryReads());
+        assertEquals(1, dao.getReplicaReads());
+    }
+
+    @Test
+    @DisplayName("Should route reads to replica after read-your-writes window")
+    void shouldRouteToReplicaAfterWindow() throws InterruptedException {
+        // Given
+        ReplicaRoutingUserDao dao = routing(List.of(new UserDaoImpl(replicaFactory)), Duration.ofMillis(100));
+        User saved = dao.save(new User("Carol", "carol@example.com", 25));
+        assertTrue(dao.findById(saved.getId()).isPresent());
+
+        // When
+        Thread.sleep(150);
+
+        // Then
+        assertTrue(dao.findById(saved.getId()).isEmpty());
+        assertEquals("Replica Only", dao.findByEmail("replica-only@example.com").orElseThrow().getName());
+        assertEquals(1, dao.findByName("Replica").size());
+        assertEquals(1, dao.findAll().size());
+        assertEquals(4, dao.getReplicaReads());
+    }
+
+    @Test
+    @DisplayName("Should fail over to next replica and primary when replica is down")
+    void shouldFailOverWhenReplicaIsDown() {
+        // Given
+        SessionFactory deadFactory = HibernateUtil.buildReplicaSessionFactory(
+                "jdbc:postgresql://localhost:1/none", "test-dead-replica");
+        try {
+            createTestUser("dave@example.com");
+            ReplicaRoutingUserDao viaReplicas = routing(
+                    List.of(new UserDaoImpl(deadFactory), new UserDaoImpl(replicaFactory)), Duration.ZERO);
+            ReplicaRoutingUserDao viaPrimary = routing(List.of(new UserDaoImpl(deadFactory)), Duration.ZERO);
+
+            // When
+            boolean first = viaReplicas.findByEmail("replica-only@example.com").isPresent();
+            boolean second = viaReplicas.findByEmail("replica-only@example.com").isPresent();
+            boolean onPrimary = viaPrimary.findByEmail("dave@example.com").isPresent();
+
+            // Then
+            assertTrue(first);
+            assertTrue(second);
+            assertEquals(1, viaReplicas.getFailovers());
+            assertEquals(2, viaReplicas.getReplicaReads());
+            assertTrue(onPrimary);
+            assertEquals(1, viaPrimary.getFailovers());
+            assertEquals(1, viaPrimary.getPrimaryReads());
+        } finally {
+            deadFactory.close();
+        }
+    }
+
+    private ReplicaRoutingUserDao routing(List<UserDao> replicas, Duration window) {
+        return new ReplicaRoutingUserDao(userDao, replicas, window, Duration.ofMinutes(1));
+    }
+
+    private static void execute(String... statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                replicaDb.getJdbcUrl(), replicaDb.getUsername(), replicaDb.getPassword());
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
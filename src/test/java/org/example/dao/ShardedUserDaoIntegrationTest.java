@@ -0,0 +1,228 @@
+package org.example.dao;
+
+import org.example.model.User;
+import org.example.model.UserSummary;
+import org.example.search.TrigramIndex;
+import org.example.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Все тесты UserDaoIntegrationTest на трёх шардах: основная БД и две базы
+// в том же PostgreSQL, плюс проверки размещения, переноса и перераспределения
+@DisplayName("Sharded UserDao Integration Tests")
+class ShardedUserDaoIntegrationTest extends UserDaoIntegrationTest {
+
+    private static final List<SessionFactory> shardFactories = new ArrayList<>();
+
+    private final List<ShardedUserDao> opened = new ArrayList<>();
+
+    @BeforeAll
+    static void createShards() throws SQLException {
+        for (String name : List.of("shard1", "shard2")) {
+            execute("DROP DATABASE IF EXISTS " + name, "CREATE DATABASE " + name);
+            shardFactories.add(HibernateUtil.buildShardSessionFactory(shardUrl(name), "test-" + name));
+        }
+    }
+
+    @AfterAll
+    static void closeShards() {
+        shardFactories.forEach(SessionFactory::close);
+        shardFactories.clear();
+    }
+
+    @BeforeEach
+    void useShards() {
+        for (SessionFactory factory : shardFactories) {
+            try (Session session = factory.openSession()) {
+                Transaction transaction = session.beginTransaction();
+                session.createQuery("DELETE FROM User").executeUpdate();
+                transaction.commit();
+            }
+        }
+        userDao = sharded(shardDaos(3, false));
+    }
+
+    @AfterEach
+    void closeShardedDaos() {
+        opened.forEach(ShardedUserDao::close);
+    }
+
+    @Override
+    UserDao createIndexedDao() {
+        return sharded(shardDaos(3, true));
+    }
+
+    @Test
+    @DisplayName("Should place users on the shard of their email")
+    void shouldPlaceUsersOnShardOfEmail() {
+        // Given
+        List<UserDao> shards = shardDaos(3, false);
+        ShardRing ring = new ShardRing(3);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            users.add(new User("Placed " + i, "placed" + i + "@example.com", 30));
+        }
+
+        // When
+        userDao.saveAll(users);
+
+        // Then
+        for (int shard = 0; shard < 3; shard++) {
+            assertFalse(shards.get(shard).findAll().isEmpty(), "shard " + shard + " is empty");
+        }
+        for (User user : users) {
+            int shard = ring.shardOfEmail(user.getEmail());
+            assertEquals(shard, ring.shardOfId(user.getId()));
+            assertEquals(user.getEmail(), shards.get(shard).findById(user.getId()).orElseThrow().getEmail());
+        }
+    }
+
+    @Test
+    @DisplayName("Should move user to another shard keeping id when email changes")
+    void shouldMoveUserKeepingIdWhenEmailChanges() {
+        // Given
+        List<UserDao> shards = shardDaos(3, false);
+        ShardRing ring = new ShardRing(3);
+        User user = userDao.save(new User("Mover", "mover@example.com", 30));
+        int source = ring.shardOfEmail("mover@example.com");
+        String newEmail = emailOnOtherShard(ring, source);
+
+        // When
+        User moved = userDao.patch(user.getId(), new UserPatch().withEmail(newEmail).withAge(31));
+
+        // Then
+        int target = ring.shardOfEmail(newEmail);
+        assertEquals(user.getId(), moved.getId());
+        assertTrue(shards.get(source).findById(user.getId()).isEmpty());
+        assertEquals(newEmail, shards.get(target).findById(user.getId()).orElseThrow().getEmail());
+        User found = userDao.findById(user.getId()).orElseThrow();
+        assertEquals(31, found.getAge());
+        assertTrue(Duration.between(user.getCreatedAt(), found.getCreatedAt()).abs().toMillis() < 1);
+        assertEquals(user.getId(), userDao.findByEmail(newEmail).orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("Should rebalance users after adding a shard")
+    void shouldRebalanceUsersAfterAddingShard() {
+        // Given
+        UserDao twoShards = sharded(shardDaos(2, false));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            users.add(new User("Rebalanced " + i, "rebalanced" + i + "@example.com", 30));
+        }
+        twoShards.saveAll(users);
+
+        // When
+        RebalanceResult result = new ShardRebalancer(shardDaos(3, false)).rebalance(null);
+
+        // Then
+        ShardRing ring = new ShardRing(3);
+        long expectedMoves = users.stream().filter(user -> ring.shardOfEmail(user.getEmail()) == 2).count();
+        assertTrue(expectedMoves > 0);
+        assertEquals(expectedMoves, result.getMoved());
+        assertEquals(0, result.getFailed());
+        assertEquals(200, userDao.findAll().size());
+        for (User user : users) {
+            assertEquals(user.getId(), userDao.findByEmail(user.getEmail()).orElseThrow().getId());
+            assertTrue(userDao.findById(user.getId()).isPresent());
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge name search in the same order as a single database")
+    void shouldMergeNamesInDatabaseOrder() {
+        // Given
+        // Порядок зависит от collation базы: в en_US регистр не важен, в "C" - важен,
+        // а U+FF21 и U+1F600 по-разному сравнивает String.compareTo
+        List<String> names = List.of("alice Mixed", "Bob Mixed", "\uD83D\uDE00 Mixed", "Émile Mixed", "bob Mixed",
+                "Zoe Mixed", "\uFF21 Mixed", "alice Mixed");
+        ShardRing ring = new ShardRing(3);
+        Set<Integer> usedShards = new HashSet<>();
+        UserDao singleDatabase = new UserDaoImpl(shardFactories.get(1));
+        for (int i = 0; i < names.size(); i++) {
+            String email = "mixed" + i + "@example.com";
+            usedShards.add(ring.shardOfEmail(email));
+            userDao.save(new User(names.get(i), email, 30));
+            singleDatabase.save(new User(names.get(i).replace("Mixed", "Single"), "single" + i + "@example.com", 30));
+        }
+
+        // When
+        List<String> sharded = userDao.findByName("mixed").stream().map(User::getName).toList();
+        List<String> summaries = userDao.findSummariesByName("mixed").stream().map(UserSummary::getName).toList();
+        List<String> single = singleDatabase.findByName("single").stream()
+                .map(user -> user.getName().replace("Single", "Mixed")).toList();
+
+        // Then
+        assertTrue(usedShards.size() > 1);
+        assertEquals(names.size(), sharded.size());
+        assertEquals(sharded, summaries);
+        assertEquals(sharded, single);
+    }
+
+    private ShardedUserDao sharded(List<UserDao> shards) {
+        SessionFactory shardZero = HibernateUtil.getSessionFactory();
+        ShardedUserDao dao = new ShardedUserDao(shards, ShardedUserDao.sequenceOf(shardZero),
+                ShardedUserDao.collationOf(shardZero));
+        opened.add(dao);
+        return dao;
+    }
+
+    private static List<UserDao> shardDaos(int count, boolean nameIndex) {
+        List<UserDao> shards = new ArrayList<>();
+        shards.add(warmed(nameIndex ? new UserDaoImpl(new TrigramIndex(10_000, 100)) : new UserDaoImpl()));
+        for (int i = 0; i < count - 1; i++) {
+            SessionFactory factory = shardFactories.get(i);
+            shards.add(warmed(nameIndex ? new UserDaoImpl(factory, new TrigramIndex(10_000, 100))
+                    : new UserDaoImpl(factory)));
+        }
+        return shards;
+    }
+
+    private static UserDao warmed(UserDaoImpl dao) {
+        dao.warmNameIndex();
+        return dao;
+    }
+
+    private static String emailOnOtherShard(ShardRing ring, int shard) {
+        for (int i = 0; ; i++) {
+            String email = "moved" + i + "@example.com";
+            if (ring.shardOfEmail(email) != shard) {
+                return email;
+            }
+        }
+    }
+
+    // Та же база, что у шарда 0, но с другим именем БД
+    private static String shardUrl(String database) {
+        return System.getProperty("hibernate.connection.url").replaceFirst("/[^/?]+(\\?|$)", "/" + database + "$1");
+    }
+
+    private static void execute(String... statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(System.getProperty("hibernate.connection.url"),
+                System.getProperty("hibernate.connection.username"), System.getProperty("hibernate.connection.password"));
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
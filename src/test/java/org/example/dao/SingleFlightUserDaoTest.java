@@ -0,0 +1,168 @@
+package org.example.dao;
+
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SingleFlightUserDao Unit Tests")
+class SingleFlightUserDaoTest {
+
+    @Mock
+    private UserDao userDao;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SingleFlightUserDao singleFlight;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlightUserDao(userDao, 16);
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should share one database call between concurrent lookups of the same id")
+    void shouldShareOneCallForSameId() throws Exception {
+        // Given
+        when(userDao.findById(1L)).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(user(1L, "hot@example.com"));
+        });
+
+        // When
+        List<Future<Optional<User>>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(callers.submit(() -> singleFlight.findById(1L)));
+        }
+        // Счётчик повторов растёт только после того, как вызов присоединился к запросу в полёте
+        await(() -> singleFlight.getFindByIdDeduplicated() == 19);
+        release.countDown();
+
+        // Then
+        Set<User> users = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<Optional<User>> result : results) {
+            User user = result.get(5, TimeUnit.SECONDS).orElseThrow();
+            assertEquals("hot@example.com", user.getEmail());
+            users.add(user);
+        }
+        verify(userDao, times(1)).findById(1L);
+        assertEquals(19, singleFlight.getFindByIdDeduplicated());
+        assertEquals(20, users.size());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    @DisplayName("Should not share lookups of different keys")
+    void shouldNotShareDifferentKeys() {
+        // Given
+        when(userDao.findByEmail(any())).thenAnswer(invocation ->
+                Optional.of(user(1L, invocation.getArgument(0))));
+
+        // When
+        singleFlight.findByEmail("a@example.com");
+        singleFlight.findByEmail("b@example.com");
+        singleFlight.findByEmail("a@example.com");
+
+        // Then
+        verify(userDao, times(2)).findByEmail("a@example.com");
+        verify(userDao, times(1)).findByEmail("b@example.com");
+        assertEquals(3, singleFlight.getFindByEmailCalls());
+        assertEquals(0, singleFlight.getFindByEmailDeduplicated());
+    }
+
+    @Test
+    @DisplayName("Should not join a lookup started before a write")
+    void shouldNotJoinLookupStartedBeforeWrite() throws Exception {
+        // Given
+        when(userDao.findByEmail("new@example.com"))
+                .thenAnswer(invocation -> {
+                    release.await();
+                    return Optional.empty();
+                })
+                .thenReturn(Optional.of(user(7L, "new@example.com")));
+        Future<Optional<User>> before = callers.submit(() -> singleFlight.findByEmail("new@example.com"));
+        await(() -> singleFlight.getInFlightCount() == 1);
+
+        // When
+        singleFlight.save(new User("New", "new@example.com", 30));
+        Optional<User> after = singleFlight.findByEmail("new@example.com");
+        release.countDown();
+
+        // Then
+        assertTrue(after.isPresent());
+        assertTrue(before.get(5, TimeUnit.SECONDS).isEmpty());
+        verify(userDao, times(2)).findByEmail("new@example.com");
+        assertEquals(0, singleFlight.getFindByEmailDeduplicated());
+    }
+
+    @Test
+    @DisplayName("Should rethrow the shared failure to every waiting caller")
+    void shouldRethrowSharedFailure() throws Exception {
+        // Given
+        when(userDao.findById(2L)).thenAnswer(invocation -> {
+            release.await();
+            throw new UserException("Database is down");
+        });
+        List<Future<Optional<User>>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(callers.submit(() -> singleFlight.findById(2L)));
+        }
+        await(() -> singleFlight.getFindByIdDeduplicated() == 4);
+
+        // When
+        release.countDown();
+
+        // Then
+        for (Future<Optional<User>> result : results) {
+            ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertEquals("Database is down", error.getCause().getMessage());
+        }
+        verify(userDao, times(1)).findById(2L);
+        assertEquals(4, singleFlight.getFindByIdDeduplicated());
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User("Hot User", email, 30);
+        user.setId(id);
+        return user;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package org.example.dao;
 
 import org.example.model.User;
+import org.example.model.UserSummary;
 import org.example.exception.UserException;
+import org.example.search.TrigramIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +34,23 @@ class UserDaoIntegrationTest extends BaseDaoTest {
         assertNotNull(savedUser.getCreatedAt());
     }
 
+    @Test
+    @DisplayName("Should generate new id when saving user that already carries one")
+    void shouldGenerateNewIdForUserWithStaleId() {
+        // Given
+        User existing = createTestUser("existing@example.com");
+        User user = new User("Stale Id", "stale@example.com", 40);
+        user.setId(existing.getId());
+
+        // When
+        User savedUser = userDao.save(user);
+
+        // Then
+        assertNotEquals(existing.getId(), savedUser.getId());
+        assertEquals("existing@example.com", userDao.findById(existing.getId()).orElseThrow().getEmail());
+        assertEquals("stale@example.com", userDao.findById(savedUser.getId()).orElseThrow().getEmail());
+    }
+
     @Test
     @DisplayName("Should find user by id")
     void shouldFindUserById() {
@@ -167,4 +187,320 @@ class UserDaoIntegrationTest extends BaseDaoTest {
         User savedUser = userDao.save(validUser);
         assertNotNull(savedUser.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should save users in batch")
+    void shouldSaveUsersInBatch() {
+        // Given
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            users.add(new User("Batch User " + i, "batch" + i + "@example.com", 20 + i % 50));
+        }
+
+        // When
+        BatchSaveResult result = userDao.saveAll(users);
+
+        // Then
+        assertFalse(result.hasFailures());
+        assertEquals(120, result.getSaved().size());
+        assertThat(result.getSaved(), everyItem(hasProperty("id", notNullValue())));
+        assertEquals(120, userDao.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Should report failed rows without aborting the batch")
+    void shouldReportFailedRowsWithoutAbortingBatch() {
+        // Given
+        createTestUser("taken@example.com");
+        List<User> users = List.of(
+                new User("First", "first@example.com", 30),
+                new User("Duplicate", "taken@example.com", 31),
+                new User("", "invalid@example.com", 32),
+                new User("Last", "last@example.com", 33));
+
+        // When
+        BatchSaveResult result = userDao.saveAll(users);
+
+        // Then
+        assertEquals(2, result.getSaved().size());
+        assertEquals(2, result.getFailures().size());
+        assertThat(result.getFailures(), hasItem(allOf(
+                hasProperty("index", equalTo(1)),
+                hasProperty("error", instanceOf(UserException.ConstraintViolationException.class)))));
+        assertThat(result.getFailures(), hasItem(allOf(
+                hasProperty("index", equalTo(2)),
+                hasProperty("error", instanceOf(UserException.ValidationException.class)))));
+        assertTrue(userDao.findByEmail("first@example.com").isPresent());
+        assertTrue(userDao.findByEmail("last@example.com").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should walk all users page by page")
+    void shouldWalkAllUsersPageByPage() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            createTestUser("page" + i + "@example.com");
+        }
+
+        // When
+        Page<User> first = userDao.findPage(null, 2);
+        Page<User> second = userDao.findPage(first.getNextCursor(), 2);
+        Page<User> last = userDao.findPage(second.getNextCursor(), 2);
+
+        // Then
+        assertEquals(2, first.getItems().size());
+        assertEquals(2, second.getItems().size());
+        assertEquals(1, last.getItems().size());
+        assertTrue(first.hasNext());
+        assertFalse(last.hasNext());
+        assertTrue(first.getItems().get(1).getId() < second.getItems().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid page size")
+    void shouldRejectInvalidPageSize() {
+        assertThrows(UserException.ValidationException.class, () -> userDao.findPage(null, 0));
+    }
+
+    @Test
+    @DisplayName("Should not return cached user after delete")
+    void shouldNotReturnCachedUserAfterDelete() {
+        // Given
+        User savedUser = createTestUser("cached@example.com");
+        assertTrue(userDao.findById(savedUser.getId()).isPresent());
+        assertTrue(userDao.findByEmail("cached@example.com").isPresent());
+
+        // When
+        userDao.delete(savedUser.getId());
+
+        // Then
+        assertFalse(userDao.findById(savedUser.getId()).isPresent());
+        assertFalse(userDao.findByEmail("cached@example.com").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should find user by email after cached miss")
+    void shouldFindUserByEmailAfterCachedMiss() {
+        // Given
+        assertFalse(userDao.findByEmail("late@example.com").isPresent());
+
+        // When
+        createTestUser("late@example.com");
+
+        // Then
+        assertTrue(userDao.findByEmail("late@example.com").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should find users by name through the name index")
+    void shouldFindUsersByNameThroughNameIndex() {
+        // Given
+        userDao.save(new User("Alice Smith", "alice@example.com", 25));
+        User bob = userDao.save(new User("Bob Smith", "bob@example.com", 30));
+        User carol = userDao.save(new User("Carol Jones", "carol@example.com", 35));
+        User erin = userDao.save(new User("Erin Jones", "erin@example.com", 45));
+
+        UserDao indexedDao = createIndexedDao();
+
+        // When
+        indexedDao.delete(bob.getId());
+        carol.setName("Carol Smithson");
+        indexedDao.update(carol);
+        indexedDao.patch(erin.getId(), new UserPatch().withName("Erin Smithers"));
+        indexedDao.save(new User("Dave Smith", "dave@example.com", 40));
+
+        // Then
+        List<User> users = indexedDao.findByName("smith");
+        assertEquals(userDao.findByName("smith"), users);
+        assertThat(users, contains(
+                hasProperty("name", equalTo("Alice Smith")),
+                hasProperty("name", equalTo("Carol Smithson")),
+                hasProperty("name", equalTo("Dave Smith")),
+                hasProperty("name", equalTo("Erin Smithers"))));
+        assertTrue(indexedDao.findByName("Jones").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should throw not found when updating missing user")
+    void shouldThrowNotFoundWhenUpdatingMissingUser() {
+        // Given
+        User missingUser = new User("Ghost", "ghost@example.com", 40);
+        missingUser.setId(999_999L);
+
+        // When & Then
+        assertThrows(UserException.EntityNotFoundException.class, () -> userDao.update(missingUser));
+    }
+
+    @Test
+    @DisplayName("Should patch only given fields")
+    void shouldPatchOnlyGivenFields() {
+        // Given
+        User savedUser = createTestUser("patch@example.com");
+        userDao.findById(savedUser.getId());
+
+        // When
+        User patched = userDao.patch(savedUser.getId(), new UserPatch().withAge(42));
+
+        // Then
+        assertEquals(42, patched.getAge());
+        assertEquals("Test User", patched.getName());
+        assertEquals("patch@example.com", patched.getEmail());
+        assertNotNull(patched.getCreatedAt());
+        assertEquals(42, userDao.findById(savedUser.getId()).get().getAge());
+    }
+
+    @Test
+    @DisplayName("Should refresh cached email lookup after patching email")
+    void shouldRefreshCachedEmailLookupAfterPatchingEmail() {
+        // Given
+        User savedUser = createTestUser("before@example.com");
+        assertTrue(userDao.findByEmail("before@example.com").isPresent());
+
+        // When
+        userDao.patch(savedUser.getId(), new UserPatch().withEmail("after@example.com"));
+
+        // Then
+        assertFalse(userDao.findByEmail("before@example.com").isPresent());
+        assertEquals(savedUser.getId(), userDao.findByEmail("after@example.com").get().getId());
+    }
+
+    @Test
+    @DisplayName("Should throw not found when patching missing user")
+    void shouldThrowNotFoundWhenPatchingMissingUser() {
+        assertThrows(UserException.EntityNotFoundException.class,
+                () -> userDao.patch(999_999L, new UserPatch().withName("Ghost")));
+    }
+
+    @Test
+    @DisplayName("Should throw constraint violation when patching to taken email")
+    void shouldThrowConstraintViolationWhenPatchingToTakenEmail() {
+        // Given
+        createTestUser("owner@example.com");
+        User other = createTestUser("other@example.com");
+
+        // When & Then
+        assertThrows(UserException.ConstraintViolationException.class,
+                () -> userDao.patch(other.getId(), new UserPatch().withEmail("owner@example.com")));
+    }
+
+    @Test
+    @DisplayName("Should insert then update user by email keeping id")
+    void shouldInsertThenUpdateUserByEmail() {
+        // Given
+        UpsertResult inserted = userDao.upsertByEmail(new User("First", "upsert@example.com", 20));
+        assertTrue(userDao.findByEmail("upsert@example.com").isPresent());
+
+        // When
+        UpsertResult updated = userDao.upsertByEmail(new User("Second", "upsert@example.com", 21));
+
+        // Then
+        assertEquals(UpsertResult.Action.INSERTED, inserted.getAction());
+        assertEquals(UpsertResult.Action.UPDATED, updated.getAction());
+        assertEquals(inserted.getUser().getId(), updated.getUser().getId());
+        assertEquals(inserted.getUser().getCreatedAt(), updated.getUser().getCreatedAt());
+        User found = userDao.findById(inserted.getUser().getId()).orElseThrow();
+        assertEquals("Second", found.getName());
+        assertEquals(21, found.getAge());
+        assertEquals(1, userDao.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Should skip insert if email exists without error")
+    void shouldSkipInsertIfEmailExists() {
+        // Given
+        User existing = createTestUser("absent@example.com");
+
+        // When
+        UpsertResult skipped = userDao.insertIfAbsent(new User("Other", "absent@example.com", 50));
+        UpsertResult inserted = userDao.insertIfAbsent(new User("Other", "present@example.com", 50));
+
+        // Then
+        assertEquals(UpsertResult.Action.SKIPPED, skipped.getAction());
+        assertNull(skipped.getUser());
+        assertEquals("Test User", userDao.findById(existing.getId()).orElseThrow().getName());
+        assertTrue(inserted.isInserted());
+        assertEquals(inserted.getUser().getId(), userDao.findByEmail("present@example.com").orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("Should throw not found when deleting missing user")
+    void shouldThrowNotFoundWhenDeletingMissingUser() {
+        assertThrows(UserException.EntityNotFoundException.class, () -> userDao.delete(999_999L));
+    }
+
+    @Test
+    @DisplayName("Should delete users in bulk and report removed ids")
+    void shouldDeleteUsersInBulkAndReportRemovedIds() {
+        // Given
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            users.add(new User("Bulk User " + i, "bulk" + i + "@example.com", 30));
+        }
+        userDao.saveAll(users);
+        User keeper = createTestUser("keeper@example.com");
+
+        List<Long> ids = new ArrayList<>();
+        users.forEach(user -> ids.add(user.getId()));
+        ids.add(999_999L);
+
+        // When
+        List<Long> deleted = userDao.deleteAll(ids);
+
+        // Then
+        assertEquals(1500, deleted.size());
+        assertThat(deleted, not(hasItem(999_999L)));
+        assertFalse(userDao.findById(users.get(0).getId()).isPresent());
+        assertFalse(userDao.findByEmail("bulk1499@example.com").isPresent());
+        assertTrue(userDao.findById(keeper.getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should page user summaries in id order")
+    void shouldPageUserSummariesInIdOrder() {
+        // Given
+        User first = createTestUser("summary1@example.com");
+        User second = createTestUser("summary2@example.com");
+        User third = createTestUser("summary3@example.com");
+
+        // When
+        Page<UserSummary> page = userDao.findSummaryPage(null, 2);
+        Page<UserSummary> last = userDao.findSummaryPage(page.getNextCursor(), 2);
+
+        // Then
+        assertEquals(List.of(
+                new UserSummary(first.getId(), first.getName(), first.getEmail()),
+                new UserSummary(second.getId(), second.getName(), second.getEmail())), page.getItems());
+        assertTrue(page.hasNext());
+        assertEquals(third.getId(), last.getItems().get(0).getId());
+        assertFalse(last.hasNext());
+        assertEquals(3, userDao.findAllSummaries().size());
+    }
+
+    @Test
+    @DisplayName("Should find user summaries by name with and without the name index")
+    void shouldFindUserSummariesByName() {
+        // Given
+        userDao.save(new User("Alice Smith", "alice@example.com", 25));
+        userDao.save(new User("Bob Jones", "bob@example.com", 30));
+        userDao.save(new User("Carol Smithson", "carol@example.com", 35));
+
+        UserDao indexedDao = createIndexedDao();
+
+        // When
+        List<UserSummary> summaries = userDao.findSummariesByName("smith");
+
+        // Then
+        assertThat(summaries, contains(
+                hasProperty("email", equalTo("alice@example.com")),
+                hasProperty("email", equalTo("carol@example.com"))));
+        assertEquals(summaries, indexedDao.findSummariesByName("smith"));
+        assertTrue(userDao.findSummariesByName("nobody").isEmpty());
+    }
+
+    // DAO с индексом имён поверх тех же данных; наследники подставляют свою конфигурацию
+    UserDao createIndexedDao() {
+        UserDaoImpl indexedDao = new UserDaoImpl(new TrigramIndex(10_000, 100));
+        indexedDao.warmNameIndex();
+        return indexedDao;
+    }
+}
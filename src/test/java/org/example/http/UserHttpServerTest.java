@@ -0,0 +1,180 @@
+package org.example.http;
+
+import org.example.UserService;
+import org.example.dao.Page;
+import org.example.dao.ReplicaRoutingUserDao;
+import org.example.dao.UserDao;
+import org.example.dao.UserPatch;
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.example.model.UserSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserHttpServer Tests")
+class UserHttpServerTest {
+
+    @Mock
+    private UserDao userDao;
+
+    private UserHttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = UserHttpServer.start(new UserService(userDao), null,
+                new InetSocketAddress("localhost", 0), 0);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should create user and return 201 with Location")
+    void shouldCreateUser() throws Exception {
+        // Given
+        User saved = user(7L, "Jane \"J\" Doe", "jane@example.com", 30);
+        when(userDao.save(any(User.class))).thenReturn(saved);
+
+        // When
+        HttpResponse<String> response = send("POST", "/users",
+                "{\"name\": \"Jane \\\"J\\\" Doe\", \"email\": \"jane@example.com\", \"age\": 30}");
+
+        // Then
+        assertEquals(201, response.statusCode());
+        assertEquals("/users/7", response.headers().firstValue("Location").orElse(null));
+        assertEquals("{\"id\":7,\"name\":\"Jane \\\"J\\\" Doe\",\"email\":\"jane@example.com\",\"age\":30," +
+                "\"createdAt\":\"2024-01-02T03:04:05\"}", response.body());
+        verify(userDao).save(argThat(user -> user.getName().equals("Jane \"J\" Doe") && user.getAge() == 30));
+    }
+
+    @Test
+    @DisplayName("Should map service errors to HTTP status codes")
+    void shouldMapErrorsToStatusCodes() throws Exception {
+        // Given
+        when(userDao.findById(404L)).thenReturn(Optional.empty());
+        doThrow(new UserException.EntityNotFoundException("User not found with ID: 5")).when(userDao).delete(5L);
+        when(userDao.patch(eq(6L), any(UserPatch.class)))
+                .thenThrow(new UserException.ConstraintViolationException("User with email 'a@b.com' already exists", null));
+
+        // When / Then
+        assertEquals(404, send("GET", "/users/404", null).statusCode());
+        assertEquals(404, send("DELETE", "/users/5", null).statusCode());
+        assertEquals(409, send("PUT", "/users/6", "{\"name\":\"A\",\"email\":\"a@b.com\",\"age\":20}").statusCode());
+        assertEquals(400, send("GET", "/users/abc", null).statusCode());
+        assertEquals(400, send("POST", "/users", "{\"name\":\"A\",\"email\":\"bad\",\"age\":20}").statusCode());
+        assertEquals(400, send("POST", "/users", "{\"name\":\"A\",\"email\":\"a@b.com\",\"age\":\"20\"}").statusCode());
+        assertEquals(404, send("GET", "/unknown", null).statusCode());
+
+        HttpResponse<String> malformed = send("POST", "/users", "{\"name\":");
+        assertEquals(400, malformed.statusCode());
+        assertTrue(malformed.body().startsWith("{\"error\":\"Malformed JSON"));
+
+        HttpResponse<String> notAllowed = send("PATCH", "/users/1", "{}");
+        assertEquals(405, notAllowed.statusCode());
+        assertEquals("GET, PUT, DELETE", notAllowed.headers().firstValue("Allow").orElse(null));
+        verify(userDao, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should return keyset page and search results as JSON")
+    void shouldReturnPageAndSearchResults() throws Exception {
+        // Given
+        UserSummary first = new UserSummary(1L, "Ann", "ann@example.com");
+        UserSummary second = new UserSummary(2L, "Bob", "bob@example.com");
+        when(userDao.findSummaryPage(10L, 2)).thenReturn(new Page<>(List.of(first, second), 2L));
+        when(userDao.findSummariesByName("An n")).thenReturn(List.of(first));
+
+        // When
+        HttpResponse<String> page = send("GET", "/users?after=10&limit=2", null);
+        HttpResponse<String> search = send("GET", "/users/search?name=An%20n", null);
+        HttpResponse<String> health = send("GET", "/health", null);
+
+        // Then
+        assertEquals(200, page.statusCode());
+        assertEquals("{\"items\":[{\"id\":1,\"name\":\"Ann\",\"email\":\"ann@example.com\"}," +
+                "{\"id\":2,\"name\":\"Bob\",\"email\":\"bob@example.com\"}],\"nextCursor\":2}", page.body());
+        assertEquals("[{\"id\":1,\"name\":\"Ann\",\"email\":\"ann@example.com\"}]", search.body());
+        assertEquals("application/json; charset=utf-8", page.headers().firstValue("Content-Type").orElse(null));
+        assertEquals("{\"status\":\"UP\"}", health.body());
+    }
+
+    @Test
+    @DisplayName("Should read own writes from primary across requests of one client")
+    void shouldReadOwnWritesAcrossRequests() throws Exception {
+        // Given
+        UserDao replica = mock(UserDao.class);
+        ReplicaRoutingUserDao routing = new ReplicaRoutingUserDao(userDao, List.of(replica),
+                Duration.ofMinutes(1), Duration.ofMinutes(1));
+        User saved = user(7L, "Jane", "jane@example.com", 30);
+        when(userDao.save(any(User.class))).thenReturn(saved);
+        when(userDao.findById(7L)).thenReturn(Optional.of(saved));
+        when(replica.findById(7L)).thenReturn(Optional.empty());
+
+        server.stop(0);
+        server = UserHttpServer.start(new UserService(routing), null, new InetSocketAddress("localhost", 0), 0);
+
+        // When
+        int created = sendAs("alice", "POST", "/users",
+                "{\"name\":\"Jane\",\"email\":\"jane@example.com\",\"age\":30}").statusCode();
+        int ownRead = sendAs("alice", "GET", "/users/7", null).statusCode();
+        int otherRead = sendAs("bob", "GET", "/users/7", null).statusCode();
+
+        // Then
+        assertEquals(201, created);
+        assertEquals(200, ownRead);
+        assertEquals(404, otherRead);
+        assertEquals(1, routing.getPrimaryReads());
+        assertEquals(1, routing.getReplicaReads());
+    }
+
+    private HttpResponse<String> sendAs(String clientId, String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .header("X-Client-Id", clientId)
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static User user(Long id, String name, String email, int age) {
+        User user = new User(name, email, age);
+        user.setId(id);
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        return user;
+    }
+}
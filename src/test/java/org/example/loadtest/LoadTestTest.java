@@ -0,0 +1,195 @@
+package org.example.loadtest;
+
+import org.example.dao.BatchSaveResult;
+import org.example.dao.UserDao;
+import org.example.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoadTest Unit Tests")
+class LoadTestTest {
+
+    @Mock
+    private UserDao userDao;
+
+    @Mock
+    private BatchSaveResult seeded;
+
+    @Test
+    @DisplayName("Should pick operations in proportion to their weights")
+    void shouldPickOperationsByWeight() {
+        // Given
+        WorkloadMix mix = WorkloadMix.parse("findById=3, save:1");
+        Map<Operation, Integer> picks = new EnumMap<>(Operation.class);
+
+        // When
+        for (int i = 0; i < 4_000; i++) {
+            picks.merge(mix.pick(i / 4_000.0), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(Map.of(Operation.FIND_BY_ID, 3_000, Operation.SAVE, 1_000), picks);
+        assertFalse(mix.contains(Operation.DELETE));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("scan=1"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("save=0"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("save=1,save=2"));
+    }
+
+    @Test
+    @DisplayName("Should parse command line options and reject invalid combinations")
+    void shouldParseConfig() {
+        // When
+        LoadTestConfig config = LoadTestConfig.parse(
+                new String[]{"loadtest", "workers=4", "duration=500ms", "warmup=0", "mode=open", "rate=250"}, 1);
+
+        // Then
+        assertEquals(4, config.getWorkers());
+        assertEquals(Duration.ofMillis(500), config.getDuration());
+        assertEquals(Duration.ZERO, config.getWarmup());
+        assertEquals(LoadTestConfig.Mode.OPEN, config.getMode());
+        assertEquals(250.0, config.getRate());
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadTestConfig.parse(new String[]{"mode=open"}, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadTestConfig.parse(new String[]{"workers=0"}, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadTestConfig.parse(new String[]{"threads=4"}, 0));
+    }
+
+    @Test
+    @DisplayName("Should include queueing behind a stall in open-loop latencies")
+    void shouldCorrectForCoordinatedOmissionInOpenLoop() {
+        // Given
+        seedDataset();
+        AtomicBoolean stalled = new AtomicBoolean();
+        when(userDao.findById(anyLong())).thenAnswer(invocation -> {
+            // Одна пауза 300 мс: при 200 запусках/с за ней встаёт около 60 запросов
+            if (stalled.compareAndSet(false, true)) {
+                Thread.sleep(300);
+            }
+            return Optional.of(new User("Loadtest", "lt@loadtest.example.com", 30));
+        });
+        LoadTestConfig config = new LoadTestConfig()
+                .withWorkers(1)
+                .withDatasetSize(10)
+                .withWarmup(Duration.ZERO)
+                .withDuration(Duration.ofSeconds(1))
+                .withMode(LoadTestConfig.Mode.OPEN, 200)
+                .withMix(WorkloadMix.parse("findById=1"))
+                .validate();
+
+        // When
+        LoadTestReport report = new LoadTest(userDao, config).run(null);
+
+        // Then
+        OperationReport findById = report.getOperations().get(0);
+        assertEquals(Operation.FIND_BY_ID, findById.getOperation());
+        assertTrue(findById.getCount() >= 150, "count=" + findById.getCount());
+        assertTrue(findById.getServiceMicros(90.0) < 20_000, findById.toString());
+        assertTrue(findById.getResponseMicros(90.0) > 50_000, findById.toString());
+        assertTrue(findById.getResponseMaxMicros() >= 290_000, findById.toString());
+        verify(userDao).deleteAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should report measured latencies without correction in closed loop without rate")
+    void shouldNotInventLatenciesInUnpacedClosedLoop() {
+        // Given
+        seedDataset();
+        AtomicBoolean stalled = new AtomicBoolean();
+        when(userDao.findById(anyLong())).thenAnswer(invocation -> {
+            if (stalled.compareAndSet(false, true)) {
+                Thread.sleep(100);
+            }
+            return Optional.of(new User("Loadtest", "lt@loadtest.example.com", 30));
+        });
+        LoadTestConfig config = new LoadTestConfig()
+                .withWorkers(1)
+                .withDatasetSize(10)
+                .withWarmup(Duration.ZERO)
+                .withDuration(Duration.ofMillis(300))
+                .withMix(WorkloadMix.parse("findById=1"))
+                .validate();
+
+        // When
+        LoadTestReport report = new LoadTest(userDao, config).run(null);
+
+        // Then
+        OperationReport findById = report.getOperations().get(0);
+        assertFalse(findById.isCorrected());
+        // Одна долгая операция остаётся одной: без выдуманных значений p99 - время обычного вызова
+        assertTrue(findById.getResponseMaxMicros() >= 100_000, findById.toString());
+        assertTrue(findById.getResponseMicros(99.0) < 50_000, findById.toString());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.print(new PrintStream(out, true, StandardCharsets.UTF_8));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("NOT corrected"));
+    }
+
+    @Test
+    @DisplayName("Should delete mostly users created by save rather than the seeded dataset")
+    void shouldDeleteCreatedUsersFirst() {
+        // Given
+        seedDataset();
+        AtomicLong ids = new AtomicLong(1_000);
+        when(userDao.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(ids.incrementAndGet());
+            return user;
+        });
+        List<Long> deleted = new ArrayList<>();
+        doAnswer(invocation -> deleted.add(invocation.getArgument(0))).when(userDao).delete(anyLong());
+        LoadTestConfig config = new LoadTestConfig()
+                .withWorkers(1)
+                .withDatasetSize(10)
+                .withWarmup(Duration.ZERO)
+                .withDuration(Duration.ofMillis(200))
+                .withMix(WorkloadMix.parse("save=2,delete=1"))
+                .validate();
+
+        // When
+        LoadTestReport report = new LoadTest(userDao, config).run(null);
+
+        // Then
+        assertTrue(report.getTotalCount() > 0);
+        assertFalse(deleted.isEmpty());
+        // Из набора удаляется только когда очередь созданных пуста (в начале прогона)
+        long seededDeletes = deleted.stream().filter(id -> id <= 1_000).count();
+        assertTrue(seededDeletes * 10 < deleted.size(), seededDeletes + " of " + deleted.size());
+        assertEquals(0, report.getOperations().stream().mapToLong(OperationReport::getErrors).sum());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void seedDataset() {
+        when(userDao.saveAll(anyCollection())).thenAnswer(invocation -> {
+            List<User> users = new ArrayList<>((Collection<User>) invocation.getArgument(0));
+            for (int i = 0; i < users.size(); i++) {
+                users.get(i).setId((long) i + 1);
+            }
+            when(seeded.getSaved()).thenReturn(users);
+            return seeded;
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DatabaseHealthMonitor Unit Tests")
+class DatabaseHealthMonitorTest {
+
+    private static final Duration INTERVAL = Duration.ofHours(1);
+
+    @Mock
+    private Callable<Connection> connections;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    @DisplayName("Should report UP and reuse the dedicated connection between probes")
+    void shouldReportUpAndReuseConnection() throws Exception {
+        // Given
+        when(connections.call()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+
+        // When
+        try (DatabaseHealthMonitor monitor = new DatabaseHealthMonitor(connections, INTERVAL, Duration.ofSeconds(5), 3)) {
+            monitor.probe();
+            monitor.probe();
+
+            // Then
+            DatabaseHealth health = monitor.getHealth();
+            assertEquals(HealthStatus.UP, health.getStatus());
+            assertEquals(0, health.getConsecutiveFailures());
+            assertTrue(health.getLatencyMicros() >= 0);
+            assertNotNull(health.getCheckedAt());
+            assertNull(health.getLastError());
+        }
+        verify(connections, times(1)).call();
+        verify(connection, times(3)).isValid(anyInt());
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Should degrade, go down after consecutive failures and recover with a new connection")
+    void shouldGoDownAfterConsecutiveFailuresAndRecover() throws Exception {
+        // Given
+        when(connections.call())
+                .thenReturn(connection)
+                .thenThrow(new SQLException("Connection refused"))
+                .thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true, false, true);
+
+        try (DatabaseHealthMonitor monitor = new DatabaseHealthMonitor(connections, INTERVAL, Duration.ofSeconds(5), 2)) {
+            long upLatency = monitor.getHealth().getLatencyMicros();
+
+            // When / Then
+            monitor.probe();
+            assertEquals(HealthStatus.DEGRADED, monitor.getHealth().getStatus());
+            assertEquals(1, monitor.getHealth().getConsecutiveFailures());
+            assertEquals(upLatency, monitor.getHealth().getLatencyMicros());
+
+            monitor.probe();
+            assertEquals(HealthStatus.DOWN, monitor.getHealth().getStatus());
+            assertEquals(2, monitor.getHealth().getConsecutiveFailures());
+            assertEquals("Connection refused", monitor.getHealth().getLastError());
+
+            monitor.probe();
+            assertEquals(HealthStatus.UP, monitor.getHealth().getStatus());
+            assertEquals(0, monitor.getHealth().getConsecutiveFailures());
+        }
+        verify(connections, times(3)).call();
+    }
+
+    @Test
+    @DisplayName("Should report DEGRADED when the probe is slower than the threshold")
+    void shouldReportDegradedWhenProbeIsSlow() throws Exception {
+        // Given
+        when(connections.call()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return true;
+        });
+
+        // When
+        try (DatabaseHealthMonitor monitor = new DatabaseHealthMonitor(connections, INTERVAL, Duration.ofMillis(1), 3)) {
+
+            // Then
+            assertEquals(HealthStatus.DEGRADED, monitor.getHealth().getStatus());
+            assertEquals(0, monitor.getHealth().getConsecutiveFailures());
+            assertTrue(monitor.getHealth().getLatencyMicros() >= 5000);
+        }
+    }
+}
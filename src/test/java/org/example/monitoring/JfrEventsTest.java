@@ -0,0 +1,126 @@
+package org.example.monitoring;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.dao.UserDao;
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JFR Events Unit Tests")
+class JfrEventsTest {
+
+    @Mock
+    private UserDao userDao;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should record a DAO event with operation, rows and outcome")
+    void shouldRecordDaoEvents() throws Exception {
+        // Given
+        User user = new User("John Doe", "john@example.com", 30);
+        user.setId(5L);
+        when(userDao.findByEmail("john@example.com")).thenReturn(Optional.of(user));
+        when(userDao.findByName("john")).thenReturn(List.of(user, user));
+        doThrow(new UserException.EntityNotFoundException("User not found with id: 9"))
+                .when(userDao).delete(9L);
+        JfrUserDao jfrUserDao = new JfrUserDao(userDao);
+
+        // When
+        List<RecordedEvent> events = record(() -> {
+            jfrUserDao.findByEmail("john@example.com");
+            jfrUserDao.findByName("john");
+            assertThrows(UserException.EntityNotFoundException.class, () -> jfrUserDao.delete(9L));
+        }, "org.example.UserDao");
+
+        // Then
+        assertEquals(3, events.size());
+        RecordedEvent findByEmail = events.get(0);
+        assertEquals("findByEmail", findByEmail.getString("operation"));
+        assertEquals(5L, findByEmail.getLong("userId"));
+        assertEquals("john@example.com".hashCode(), findByEmail.getInt("emailHash"));
+        assertEquals(1, findByEmail.getInt("rows"));
+        assertEquals("success", findByEmail.getString("outcome"));
+
+        assertEquals(2, events.get(1).getInt("rows"));
+        assertEquals("notFound", events.get(2).getString("outcome"));
+        assertEquals(9L, events.get(2).getLong("userId"));
+    }
+
+    @Test
+    @DisplayName("Should record session lifetime and transaction completion events")
+    void shouldRecordSessionAndTransactionEvents() throws Exception {
+        // When
+        List<RecordedEvent> events = record(() -> {
+            JfrSessionListener listener = new JfrSessionListener();
+            listener.jdbcExecuteStatementEnd();
+            listener.jdbcExecuteStatementEnd();
+            listener.flushEnd(1, 0);
+            listener.transactionCompletion(true);
+            listener.transactionCompletion(false);
+            listener.end();
+        }, "org.example.HibernateSession", "org.example.HibernateTransaction");
+
+        // Then
+        List<RecordedEvent> transactions = ofType(events, "org.example.HibernateTransaction");
+        assertEquals(2, transactions.size());
+        assertTrue(transactions.get(0).getBoolean("committed"));
+        assertFalse(transactions.get(1).getBoolean("committed"));
+
+        List<RecordedEvent> sessions = ofType(events, "org.example.HibernateSession");
+        assertEquals(1, sessions.size());
+        assertEquals(2, sessions.get(0).getInt("statements"));
+        assertEquals(1, sessions.get(0).getInt("flushes"));
+        assertEquals(1, sessions.get(0).getInt("commits"));
+        assertEquals(1, sessions.get(0).getInt("rollbacks"));
+    }
+
+    @Test
+    @DisplayName("Should not record anything when no recording is running")
+    void shouldNotRecordWithoutRecording() {
+        JfrSessionListener listener = new JfrSessionListener();
+        listener.jdbcExecuteStatementEnd();
+        listener.transactionCompletion(true);
+        assertDoesNotThrow(listener::end);
+    }
+
+    private List<RecordedEvent> record(Runnable action, String... eventNames) throws Exception {
+        Path file = tempDir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            for (String eventName : eventNames) {
+                recording.enable(eventName).withoutThreshold();
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("org.example."))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
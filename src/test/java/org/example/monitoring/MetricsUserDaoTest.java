@@ -0,0 +1,141 @@
+package org.example.monitoring;
+
+import org.example.dao.UserDao;
+import org.example.exception.UserException;
+import org.example.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MetricsUserDao Unit Tests")
+class MetricsUserDaoTest {
+
+    @Mock
+    private UserDao userDao;
+
+    private UserDaoMetrics metrics;
+    private MetricsUserDao metricsUserDao;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new UserDaoMetrics(Duration.ofHours(1));
+        metricsUserDao = new MetricsUserDao(userDao, metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        metrics.close();
+    }
+
+    @Test
+    @DisplayName("Should count successes and not-found lookups")
+    void shouldCountSuccessesAndNotFoundLookups() {
+        // Given
+        User user = new User("John Doe", "john@example.com", 30);
+        when(userDao.findById(1L)).thenReturn(Optional.of(user));
+        when(userDao.findById(2L)).thenReturn(Optional.empty());
+
+        // When
+        metricsUserDao.findById(1L);
+        metricsUserDao.findById(1L);
+        metricsUserDao.findById(2L);
+
+        // Then
+        OperationMetrics findById = metrics.operation("findById");
+        assertEquals(2, findById.getSuccessCount());
+        assertEquals(1, findById.getNotFoundCount());
+        assertEquals(3, findById.getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Should classify failures and rethrow them unchanged")
+    void shouldClassifyFailuresAndRethrowThem() {
+        // Given
+        UserException.ConstraintViolationException duplicate =
+                new UserException.ConstraintViolationException("Email already exists", null);
+        when(userDao.save(any(User.class)))
+                .thenThrow(new UserException.ValidationException("Name cannot be empty"))
+                .thenThrow(duplicate)
+                .thenThrow(new UserException("Database error"));
+        doThrow(new UserException.EntityNotFoundException("User not found with id: 9"))
+                .when(userDao).delete(9L);
+
+        // When
+        User user = new User("", "john@example.com", 30);
+        assertThrows(UserException.ValidationException.class, () -> metricsUserDao.save(user));
+        assertSame(duplicate, assertThrows(UserException.class, () -> metricsUserDao.save(user)));
+        assertThrows(UserException.class, () -> metricsUserDao.save(user));
+        assertThrows(UserException.EntityNotFoundException.class, () -> metricsUserDao.delete(9L));
+
+        // Then
+        OperationMetrics save = metrics.operation("save");
+        assertEquals(1, save.getValidationFailureCount());
+        assertEquals(1, save.getConstraintViolationCount());
+        assertEquals(1, save.getErrorCount());
+        assertEquals(0, save.getSuccessCount());
+        assertEquals(1, metrics.operation("delete").getNotFoundCount());
+    }
+
+    @Test
+    @DisplayName("Should publish window percentiles and error rate after rotation")
+    void shouldPublishWindowPercentilesAfterRotation() {
+        // Given
+        when(userDao.findByEmail("john@example.com")).thenReturn(Optional.empty());
+        when(userDao.findByEmail("")).thenThrow(new UserException.ValidationException("Email cannot be empty"));
+        for (int i = 0; i < 9; i++) {
+            metricsUserDao.findByEmail("john@example.com");
+        }
+        assertThrows(UserException.class, () -> metricsUserDao.findByEmail(""));
+
+        OperationMetrics findByEmail = metrics.operation("findByEmail");
+        assertEquals(0, findByEmail.getWindowCount());
+
+        // When
+        metrics.rotate();
+
+        // Then
+        assertEquals(10, findByEmail.getWindowCount());
+        assertEquals(0.1, findByEmail.getWindowErrorRate(), 1e-9);
+        assertTrue(findByEmail.getWindowP99Micros() >= findByEmail.getWindowP50Micros());
+        assertTrue(findByEmail.getWindowMaxMicros() >= findByEmail.getWindowP99Micros());
+
+        metrics.rotate();
+        assertEquals(0, findByEmail.getWindowCount());
+    }
+
+    @Test
+    @DisplayName("Should expose operation metrics as MBeans")
+    void shouldExposeOperationMetricsAsMBeans() throws Exception {
+        // Given
+        when(userDao.findByName("john")).thenReturn(List.of());
+        metricsUserDao.findByName("john");
+
+        // When
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("org.example:type=UserDao,operation=findByName");
+
+        // Then
+        assertTrue(server.isRegistered(name));
+        assertTrue(server.isRegistered(new ObjectName("org.example:type=Hibernate,name=Statistics")));
+        assertEquals(1L, server.getAttribute(name, "SuccessCount"));
+
+        metrics.close();
+        assertFalse(server.isRegistered(name));
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Slow SQL Logging Unit Tests")
+class SlowSqlListenerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should allow at most the configured number of records per second")
+    void shouldLimitRecordsPerSecond() {
+        // Given
+        SlowSqlSampler sampler = new SlowSqlSampler(2);
+
+        // When / Then
+        assertTrue(sampler.tryAcquire(10 * SECOND));
+        assertTrue(sampler.tryAcquire(10 * SECOND + 1));
+        assertFalse(sampler.tryAcquire(10 * SECOND + 2));
+        assertFalse(sampler.tryAcquire(10 * SECOND + 3));
+        assertEquals(2, sampler.drainSuppressed());
+        assertEquals(0, sampler.drainSuppressed());
+
+        assertTrue(sampler.tryAcquire(11 * SECOND));
+    }
+
+    @Test
+    @DisplayName("Should only sample statements slower than the threshold")
+    void shouldOnlySampleStatementsAboveThreshold() {
+        // Given
+        SlowSqlSampler sampler = new SlowSqlSampler(1);
+        SlowSqlListener fastThreshold = new SlowSqlListener(0, sampler);
+        SlowSqlListener slowThreshold = new SlowSqlListener(TimeUnit.HOURS.toNanos(1), sampler);
+        new SqlTextInspector().inspect("select * from users");
+
+        // When
+        slowThreshold.jdbcExecuteStatementStart();
+        slowThreshold.jdbcExecuteStatementEnd();
+        fastThreshold.jdbcExecuteBatchStart();
+        fastThreshold.jdbcExecuteBatchEnd();
+
+        // Then
+        assertEquals(1, sampler.getSampled());
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive log rate")
+    void shouldRejectNonPositiveLogRate() {
+        assertThrows(IllegalArgumentException.class, () -> new SlowSqlSampler(0));
+    }
+}
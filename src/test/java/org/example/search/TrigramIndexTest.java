@@ -0,0 +1,91 @@
+package org.example.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TrigramIndex Unit Tests")
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex(10_000, 100);
+        index.put(1L, "Alice Smith");
+        index.put(2L, "Bob Smith");
+        index.put(3L, "Carol Jones");
+        index.markReady();
+    }
+
+    @Test
+    @DisplayName("Should find candidates by case-insensitive substring")
+    void shouldFindCandidatesBySubstring() {
+        assertArrayEquals(new long[]{1L, 2L}, index.search("SMITH"));
+        assertArrayEquals(new long[]{3L}, index.search("ol jo"));
+    }
+
+    @Test
+    @DisplayName("Should return empty candidates when trigram is unknown")
+    void shouldReturnEmptyCandidatesForUnknownTrigram() {
+        assertEquals(0, index.search("xyz").length);
+    }
+
+    @Test
+    @DisplayName("Should not answer queries shorter than a trigram")
+    void shouldNotAnswerShortQueries() {
+        assertNull(index.search("Al"));
+    }
+
+    @Test
+    @DisplayName("Should not answer before warm up")
+    void shouldNotAnswerBeforeWarmUp() {
+        TrigramIndex cold = new TrigramIndex(10_000, 100);
+        cold.put(1L, "Alice Smith");
+
+        assertNull(cold.search("Smith"));
+    }
+
+    @Test
+    @DisplayName("Should reindex renamed user and forget removed one")
+    void shouldReindexRenamedUserAndForgetRemovedOne() {
+        index.put(1L, "Alice Brown");
+        index.remove(2L);
+
+        assertEquals(0, index.search("Smith").length);
+        assertArrayEquals(new long[]{1L}, index.search("brown"));
+    }
+
+    @Test
+    @DisplayName("Should keep name updated during warm up")
+    void shouldKeepNameUpdatedDuringWarmUp() {
+        index.putIfAbsent(1L, "Stale Name");
+
+        assertArrayEquals(new long[]{1L, 2L}, index.search("Smith"));
+        assertEquals(0, index.search("Stale").length);
+    }
+
+    @Test
+    @DisplayName("Should fall back when too many candidates")
+    void shouldFallBackWhenTooManyCandidates() {
+        TrigramIndex small = new TrigramIndex(10_000, 1);
+        small.put(1L, "Alice Smith");
+        small.put(2L, "Bob Smith");
+        small.markReady();
+
+        assertNull(small.search("Smith"));
+    }
+
+    @Test
+    @DisplayName("Should disable itself when memory bound is exceeded")
+    void shouldDisableItselfWhenMemoryBoundExceeded() {
+        TrigramIndex small = new TrigramIndex(5, 100);
+        small.put(1L, "Alice Smith");
+        small.markReady();
+
+        assertFalse(small.isReady());
+        assertNull(small.search("Smith"));
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.service;
 
+import org.example.dao.UpsertResult;
 import org.example.dao.UserDao;
+import org.example.dao.UserPatch;
 import org.example.model.User;
 import org.example.exception.UserException;
 import org.example.UserService;
@@ -19,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -54,6 +57,26 @@ class UserServiceTest {
         verify(userDao, times(1)).save(any(User.class));
     }
 
+    @Test
+    @DisplayName("Should create or update user by email in one DAO call")
+    void shouldCreateOrUpdateUserByEmail() {
+        // Given
+        User existing = new User("John Smith", "john@example.com", 31);
+        existing.setId(1L);
+        when(userDao.upsertByEmail(any(User.class)))
+                .thenReturn(new UpsertResult(existing, UpsertResult.Action.UPDATED));
+
+        // When
+        UpsertResult result = userService.createOrUpdateUser("John Smith", "john@example.com", 31);
+
+        // Then
+        assertFalse(result.isInserted());
+        assertEquals(1L, result.getUser().getId());
+        verify(userDao, times(1)).upsertByEmail(any(User.class));
+        verify(userDao, never()).findByEmail(anyString());
+        verify(userDao, never()).save(any(User.class));
+    }
+
     @Test
     @DisplayName("Should throw validation exception when creating user with invalid email")
     void shouldThrowValidationExceptionForInvalidEmail() {
@@ -143,14 +166,10 @@ class UserServiceTest {
     @DisplayName("Should update user successfully")
     void shouldUpdateUserSuccessfully() {
         // Given
-        User existingUser = new User("Old Name", "old@example.com", 25);
-        existingUser.setId(1L);
-
         User updatedUser = new User("New Name", "new@example.com", 30);
         updatedUser.setId(1L);
 
-        when(userDao.findById(1L)).thenReturn(Optional.of(existingUser));
-        when(userDao.update(any(User.class))).thenReturn(updatedUser);
+        when(userDao.patch(eq(1L), any(UserPatch.class))).thenReturn(updatedUser);
 
         // When
         User result = userService.updateUser(1L, "New Name", "new@example.com", 30);
@@ -160,22 +179,23 @@ class UserServiceTest {
         assertEquals("new@example.com", result.getEmail());
         assertEquals(30, result.getAge());
 
-        verify(userDao, times(1)).findById(1L);
-        verify(userDao, times(1)).update(any(User.class));
+        verify(userDao, never()).findById(anyLong());
+        verify(userDao, times(1)).patch(eq(1L), any(UserPatch.class));
     }
 
     @Test
     @DisplayName("Should throw exception when updating non-existent user")
     void shouldThrowExceptionWhenUpdatingNonExistentUser() {
         // Given
-        when(userDao.findById(anyLong())).thenReturn(Optional.empty());
+        when(userDao.patch(eq(999L), any(UserPatch.class)))
+                .thenThrow(new UserException.EntityNotFoundException("User not found with ID: 999"));
 
         // When & Then
         assertThrows(UserException.EntityNotFoundException.class, () -> {
             userService.updateUser(999L, "New Name", "new@example.com", 30);
         });
 
-        verify(userDao, times(1)).findById(999L);
+        verify(userDao, times(1)).patch(eq(999L), any(UserPatch.class));
         verify(userDao, never()).update(any(User.class));
     }
 
@@ -0,0 +1,55 @@
+package org.example.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Json Unit Tests")
+class JsonTest {
+
+    @Test
+    @DisplayName("Should parse objects with escapes, numbers and nested values")
+    void shouldParseObject() {
+        // When
+        Map<String, Object> object = Json.parseObject(
+                " {\"name\": \"A \\\"q\\\" \\u00e9\\n\", \"age\": 42, \"score\": -1.5e2, " +
+                        "\"active\": true, \"note\": null, \"tags\": [\"x\", {}]} ");
+
+        // Then
+        assertEquals("A \"q\" \u00e9\n", object.get("name"));
+        assertEquals(42L, object.get("age"));
+        assertEquals(-150.0, object.get("score"));
+        assertEquals(Boolean.TRUE, object.get("active"));
+        assertTrue(object.containsKey("note"));
+        assertNull(object.get("note"));
+        assertEquals(List.of("x", Map.of()), object.get("tags"));
+    }
+
+    @Test
+    @DisplayName("Should round-trip strings written by appendString")
+    void shouldRoundTripEscapedStrings() {
+        // Given
+        String value = "quote\" backslash\\ tab\t cr\r bell\u0007 кириллица";
+        StringBuilder json = new StringBuilder("{\"v\":");
+        Json.appendString(json, value).append('}');
+
+        // When / Then
+        assertEquals(value, Json.parseObject(json.toString()).get("v"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed documents")
+    void shouldRejectMalformedDocuments() {
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("[1]"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":1"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":1} x"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":1,\"a\":2}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":\"\\x\"}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\":01.2.3}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject(""));
+    }
+}